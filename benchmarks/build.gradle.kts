@@ -0,0 +1,59 @@
+plugins {
+    id("java")
+    id("me.champeau.jmh") version ("0.7.3")
+}
+
+group = "eu.koboo"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmhCompileOnly("org.projectlombok:lombok:1.18.42")
+    jmhAnnotationProcessor("org.projectlombok:lombok:1.18.42")
+
+    jmh(project(":"))
+    jmh(gradleApi())
+}
+
+java {
+    toolchain.languageVersion.set(JavaLanguageVersion.of(25))
+}
+
+tasks {
+    withType<JavaCompile>().configureEach {
+        options.encoding = "UTF-8"
+    }
+}
+
+sourceSets {
+    main {
+        java.setSrcDirs(emptyList<String>())
+        resources.setSrcDirs(emptyList<String>())
+    }
+    test {
+        java.setSrcDirs(emptyList<String>())
+        resources.setSrcDirs(emptyList<String>())
+    }
+    named("jmh") {
+        java.setSrcDirs(listOf("src"))
+        resources.setSrcDirs(emptyList<String>())
+    }
+}
+
+// Run with "gradlew :benchmarks:jmh", select benchmarks with "-Pjmh.includes=SemVer"
+jmh {
+    val includePattern = providers.gradleProperty("jmh.includes")
+    if (includePattern.isPresent) {
+        includes.add(includePattern.get())
+    }
+    warmupIterations.set(3)
+    warmup.set("1s")
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    fork.set(2)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
@@ -0,0 +1,182 @@
+package eu.koboo.pluginmanifest.benchmarks;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Generates the synthetic inputs of the benchmarks.
+// Every generator takes a seed, so the inputs are equal between runs.
+@UtilityClass
+public class BenchmarkInputs {
+
+    private static final String[] RANGE_PREFIXES = {"", ">=", ">", "<=", "<", "^", "~"};
+    private static final String[] RELEASES = {"alpha", "beta", "rc", "SNAPSHOT"};
+    private static final String[] WORDS = {
+        "core", "api", "util", "world", "entity", "command", "event", "config", "network", "storage",
+        "economy", "chat", "permission", "inventory", "quest", "combat", "spawn", "region", "shop", "party"
+    };
+
+    public String[] generateVersions(int count, long seed) {
+        Random random = new Random(seed);
+        String[] versions = new String[count];
+        for (int i = 0; i < count; i++) {
+            versions[i] = generateVersion(random);
+        }
+        return versions;
+    }
+
+    public String[] generateRanges(int count, long seed) {
+        Random random = new Random(seed);
+        String[] ranges = new String[count];
+        for (int i = 0; i < count; i++) {
+            ranges[i] = generateRange(random);
+        }
+        return ranges;
+    }
+
+    public Map<String, String> generateDependencies(int count, long seed) {
+        Random random = new Random(seed);
+        Map<String, String> dependencies = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String pluginId = WORDS[random.nextInt(WORDS.length)] + "-group-" + i + ":" + WORDS[random.nextInt(WORDS.length)] + "-plugin";
+            dependencies.put(pluginId, generateRange(random));
+        }
+        return dependencies;
+    }
+
+    // A manifest, like the plugin generates it, with many authors and dependencies.
+    public Map<String, Object> generateManifest(int authorCount, int dependencyCount, long seed) {
+        Random random = new Random(seed);
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("Group", "com.example");
+        manifest.put("Name", "BenchmarkPlugin");
+        manifest.put("Version", generateVersion(random));
+        manifest.put("ServerVersion", "*");
+        manifest.put("Main", generatePackage(random) + ".BenchmarkPlugin");
+        manifest.put("Description", "A plugin with " + authorCount + " authors and " + dependencyCount + " dependencies.");
+        manifest.put("Website", "https://example.com/plugins/benchmark");
+        List<Map<String, String>> authors = new ArrayList<>();
+        for (int i = 0; i < authorCount; i++) {
+            Map<String, String> author = new LinkedHashMap<>();
+            author.put("Name", WORDS[random.nextInt(WORDS.length)] + "-author-" + i);
+            author.put("Email", "author" + i + "@example.com");
+            author.put("Url", "https://example.com/authors/" + i);
+            authors.add(author);
+        }
+        manifest.put("Authors", authors);
+        manifest.put("Dependencies", generateDependencies(dependencyCount, random.nextLong()));
+        manifest.put("OptionalDependencies", generateDependencies(dependencyCount / 2, random.nextLong()));
+        return manifest;
+    }
+
+    public String[] generateClassNames(int count, long seed) {
+        Random random = new Random(seed);
+        String[] classNames = new String[count];
+        for (int i = 0; i < count; i++) {
+            classNames[i] = generatePackage(random) + ".Plugin" + i;
+        }
+        return classNames;
+    }
+
+    // Creates a source tree, like a big plugin project.
+    // - 1 of 500 files is a JavaPlugin, so the parser has something to find
+    // - 1 of 20 files only mentions JavaPlugin, which passes the pre-filter
+    // - the rest are plain classes of different sizes
+    public void generateSourceTree(Path rootDirectory, int fileCount, long seed) throws IOException {
+        Random random = new Random(seed);
+        for (int i = 0; i < fileCount; i++) {
+            String packageName = generatePackage(random);
+            Path packageDirectory = rootDirectory.resolve(packageName.replace('.', '/'));
+            Files.createDirectories(packageDirectory);
+
+            String className = "Generated" + i;
+            StringBuilder source = new StringBuilder();
+            source.append("package ").append(packageName).append(";\n\n");
+            source.append("import java.util.List;\n");
+            source.append("import java.util.ArrayList;\n\n");
+            if (i % 500 == 0) {
+                source.append("import com.hypixel.hytale.server.core.plugin.JavaPlugin;\n\n");
+                source.append("public class ").append(className).append(" extends JavaPlugin {\n");
+            } else if (i % 20 == 0) {
+                source.append("// Registered by the JavaPlugin, this class extends nothing.\n");
+                source.append("public class ").append(className).append(" {\n");
+            } else {
+                source.append("public class ").append(className).append(" {\n");
+            }
+            int methodCount = 2 + random.nextInt(40);
+            for (int method = 0; method < methodCount; method++) {
+                source.append("    private final List<String> values").append(method).append(" = new ArrayList<>();\n\n");
+                source.append("    public int compute").append(method).append("(int input) {\n");
+                source.append("        int result = input * ").append(random.nextInt(1000)).append(";\n");
+                source.append("        for (String value : values").append(method).append(") {\n");
+                source.append("            result += value.length();\n");
+                source.append("        }\n");
+                source.append("        return result;\n");
+                source.append("    }\n\n");
+            }
+            source.append("}\n");
+            Files.writeString(packageDirectory.resolve(className + ".java"), source, StandardCharsets.UTF_8);
+        }
+    }
+
+    public void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private String generateVersion(Random random) {
+        StringBuilder version = new StringBuilder();
+        if (random.nextInt(10) == 0) {
+            version.append('v');
+        }
+        version.append(random.nextInt(20)).append('.')
+            .append(random.nextInt(100)).append('.')
+            .append(random.nextInt(1000));
+        if (random.nextInt(4) == 0) {
+            version.append('-').append(RELEASES[random.nextInt(RELEASES.length)]);
+            if (random.nextBoolean()) {
+                version.append('.').append(random.nextInt(10));
+            }
+        }
+        if (random.nextInt(8) == 0) {
+            version.append("+build.").append(random.nextInt(10000));
+        }
+        return version.toString();
+    }
+
+    private String generateRange(Random random) {
+        int type = random.nextInt(RANGE_PREFIXES.length + 2);
+        if (type == RANGE_PREFIXES.length) {
+            return "*";
+        }
+        if (type == RANGE_PREFIXES.length + 1) {
+            return generateVersion(random) + " - " + generateVersion(random);
+        }
+        return RANGE_PREFIXES[type] + generateVersion(random);
+    }
+
+    private String generatePackage(Random random) {
+        StringBuilder packageName = new StringBuilder("com.example");
+        int depth = 1 + random.nextInt(4);
+        for (int i = 0; i < depth; i++) {
+            packageName.append('.').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return packageName.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package eu.koboo.pluginmanifest.benchmarks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JsonWriter;
+import groovy.json.JsonOutput;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Compares the former JsonOutput.toJson + JsonOutput.prettyPrint path with the JsonWriter.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonWriterBenchmark {
+
+    @Param({"5", "100", "1000"})
+    int authorCount;
+
+    @Param({"10", "1000"})
+    int dependencyCount;
+
+    private Map<String, Object> manifest;
+    private Path outputFile;
+
+    @Setup
+    public void setup() throws IOException {
+        manifest = BenchmarkInputs.generateManifest(authorCount, dependencyCount, 42L);
+        outputFile = Files.createTempFile("benchmark-manifest", ".json");
+        String expected = JsonOutput.prettyPrint(JsonOutput.toJson(manifest));
+        if (!expected.equals(JsonWriter.toJson(manifest))) {
+            throw new IllegalStateException("JsonWriter output differs from JsonOutput");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(outputFile);
+    }
+
+    @Benchmark
+    public String jsonOutputString() {
+        return JsonOutput.prettyPrint(JsonOutput.toJson(manifest));
+    }
+
+    @Benchmark
+    public String jsonWriterString() {
+        return JsonWriter.toJson(manifest);
+    }
+
+    @Benchmark
+    public void jsonOutputFile() throws IOException {
+        Files.writeString(outputFile, JsonOutput.prettyPrint(JsonOutput.toJson(manifest)), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void jsonWriterFile() throws IOException {
+        JsonWriter.writeFile(outputFile, manifest);
+    }
+
+    // Writes into a discarding writer, so only the serialization is measured.
+    @Benchmark
+    public void jsonWriterNullWriter() throws IOException {
+        try (Writer writer = Writer.nullWriter()) {
+            JsonWriter.write(writer, manifest);
+        }
+    }
+}
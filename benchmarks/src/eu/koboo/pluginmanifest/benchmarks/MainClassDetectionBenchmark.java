@@ -0,0 +1,63 @@
+package eu.koboo.pluginmanifest.benchmarks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JavaSourceUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class MainClassDetectionBenchmark {
+
+    @Param({"100", "2000"})
+    int sourceFileCount;
+
+    @Param({"1", "4"})
+    int parallelism;
+
+    private Path sourceTree;
+    private List<File> javaSrcDirs;
+    private File coldCacheFile;
+    private File warmCacheFile;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        sourceTree = Files.createTempDirectory("pluginmanifest-jmh-sources");
+        BenchmarkInputs.generateSourceTree(sourceTree, sourceFileCount, 42L);
+        javaSrcDirs = List.of(sourceTree.toFile());
+
+        Path cacheDirectory = Files.createTempDirectory("pluginmanifest-jmh-cache");
+        coldCacheFile = cacheDirectory.resolve("cold.cache").toFile();
+        warmCacheFile = cacheDirectory.resolve("warm.cache").toFile();
+        JavaSourceUtils.getMainClassCandidates(javaSrcDirs, warmCacheFile, parallelism);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        coldCacheFile.delete();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        BenchmarkInputs.deleteRecursively(sourceTree);
+        BenchmarkInputs.deleteRecursively(coldCacheFile.toPath().getParent());
+    }
+
+    @Benchmark
+    public List<String> scanCold() {
+        return JavaSourceUtils.getMainClassCandidates(javaSrcDirs, coldCacheFile, parallelism);
+    }
+
+    @Benchmark
+    public List<String> scanWarm() {
+        return JavaSourceUtils.getMainClassCandidates(javaSrcDirs, warmCacheFile, parallelism);
+    }
+}
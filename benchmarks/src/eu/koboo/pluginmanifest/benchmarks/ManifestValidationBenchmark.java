@@ -0,0 +1,38 @@
+package eu.koboo.pluginmanifest.benchmarks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ManifestValidation;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ValidationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ManifestValidationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int dependencyCount;
+
+    private Map<String, String> dependencyMap;
+    private String[] classNames;
+
+    @Setup
+    public void setup() {
+        dependencyMap = BenchmarkInputs.generateDependencies(dependencyCount, 42L);
+        classNames = BenchmarkInputs.generateClassNames(dependencyCount, 42L);
+    }
+
+    @Benchmark
+    public void validateDependencies() throws ValidationException {
+        ManifestValidation.validateDependencies("required", dependencyMap);
+    }
+
+    @Benchmark
+    public void validateFullyQualifiedClass() throws ValidationException {
+        for (String className : classNames) {
+            ManifestValidation.validateFullyQualifiedClass("pluginMainClass", className);
+        }
+    }
+}
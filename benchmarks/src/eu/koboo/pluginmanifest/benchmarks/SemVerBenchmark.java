@@ -0,0 +1,62 @@
+package eu.koboo.pluginmanifest.benchmarks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ValidationException;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SemVerBenchmark {
+
+    // Versions as they show up in real manifests and gradle projects.
+    private static final String[] REALISTIC_VERSIONS = {
+        "1.0.0",
+        "1.0.26",
+        "v2.3.4",
+        "0.0.1-SNAPSHOT",
+        "1.2.3-alpha.1",
+        "10.20.30-rc.2+build.2026",
+        "3.1.4+sha.5114f85",
+        " 4.0.0 ",
+    };
+
+    private String[] syntheticVersions;
+    private SemVer[] parsedVersions;
+
+    @Setup
+    public void setup() throws ValidationException {
+        syntheticVersions = BenchmarkInputs.generateVersions(1024, 42L);
+        parsedVersions = new SemVer[syntheticVersions.length];
+        for (int i = 0; i < syntheticVersions.length; i++) {
+            parsedVersions[i] = SemVer.parseString("pluginVersion", syntheticVersions[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void parseRealistic(Blackhole blackhole) throws ValidationException {
+        for (String version : REALISTIC_VERSIONS) {
+            blackhole.consume(SemVer.parseString("pluginVersion", version));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void parseSynthetic(Blackhole blackhole) throws ValidationException {
+        for (String version : syntheticVersions) {
+            blackhole.consume(SemVer.parseString("pluginVersion", version));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1023)
+    public void compareSynthetic(Blackhole blackhole) {
+        for (int i = 1; i < parsedVersions.length; i++) {
+            blackhole.consume(parsedVersions[i - 1].compareTo(parsedVersions[i]));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package eu.koboo.pluginmanifest.benchmarks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ValidationException;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVerRange;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SemVerRangeBenchmark {
+
+    // One range of every supported type.
+    private static final String[] REALISTIC_RANGES = {
+        "*",
+        "1.2.3",
+        ">=1.0.0",
+        ">1.0.0",
+        "<=2.0.0",
+        "<2.0.0-rc.1",
+        "1.0.0 - 2.0.0",
+        "^1.2.3",
+        "~0.4.1",
+    };
+
+    private String[] syntheticRanges;
+
+    @Setup
+    public void setup() {
+        syntheticRanges = BenchmarkInputs.generateRanges(1024, 42L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(9)
+    public void parseRealistic(Blackhole blackhole) throws ValidationException {
+        for (String range : REALISTIC_RANGES) {
+            blackhole.consume(SemVerRange.parseString("serverVersion", range));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void parseSynthetic(Blackhole blackhole) throws ValidationException {
+        for (String range : syntheticRanges) {
+            blackhole.consume(SemVerRange.parseString("serverVersion", range));
+        }
+    }
+}
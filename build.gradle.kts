@@ -23,6 +23,31 @@ dependencies {
     implementation("com.github.javaparser:javaparser-core:3.25.9")
 }
 
+// TestKit tests, which apply the plugin to temporary consumer projects
+val functionalTest: SourceSet by sourceSets.creating {
+    java.setSrcDirs(listOf("functionalTest"))
+    resources.setSrcDirs(emptyList<String>())
+}
+
+dependencies {
+    "functionalTestImplementation"(platform("org.junit:junit-bom:5.13.4"))
+    "functionalTestImplementation"("org.junit.jupiter:junit-jupiter")
+    "functionalTestImplementation"(gradleTestKit())
+    "functionalTestRuntimeOnly"("org.junit.platform:junit-platform-launcher")
+}
+
+val functionalTestTask = tasks.register<Test>("functionalTest") {
+    description = "Runs the TestKit tests against the plugin under test."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = functionalTest.output.classesDirs
+    classpath = functionalTest.runtimeClasspath
+    useJUnitPlatform()
+}
+
+tasks.check {
+    dependsOn(functionalTestTask)
+}
+
 gradlePlugin {
     plugins {
         create("pluginManifestPlugin") {
@@ -35,6 +60,7 @@ gradlePlugin {
             tags = setOf("hytale", "manifest", "generator")
         }
     }
+    testSourceSets(functionalTest)
 }
 
 tasks.shadowJar {
@@ -42,6 +68,11 @@ tasks.shadowJar {
     archiveClassifier.set("")
 }
 
+tasks.withType<Jar>().configureEach {
+    // Used to add the matching version of the annotation processor
+    manifest.attributes("Implementation-Version" to project.version)
+}
+
 java {
     toolchain.languageVersion.set(JavaLanguageVersion.of(25))
     withSourcesJar()
@@ -0,0 +1,100 @@
+package eu.koboo.pluginmanifest.gradle.plugin;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the same build twice, the second one has to reuse the configuration cache,
+// as long as none of the declared inputs of the manifest and installation model changed.
+class ConfigurationCacheTest {
+
+    private static final String CACHE_STORED = "Configuration cache entry stored.";
+    private static final String CACHE_REUSED = "Reusing configuration cache.";
+
+    @TempDir
+    Path projectDirectory;
+
+    @TempDir
+    Path clientDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(projectDirectory.resolve("settings.gradle.kts"), """
+            rootProject.name = "cache-test"
+            """);
+        Files.writeString(projectDirectory.resolve("build.gradle.kts"), """
+            plugins {
+                java
+                id("eu.koboo.pluginmanifest")
+            }
+
+            group = "eu.koboo"
+            version = "1.0.0"
+
+            pluginManifest {
+                addDefaultRepositories = false
+                addClientServerDependency = false
+                clientInstallation {
+                    clientInstallDirectory = "%s"
+                }
+            }
+            """.formatted(clientDirectory.toAbsolutePath().toString().replace('\\', '/')));
+        writeMainClass("TestPlugin");
+    }
+
+    @Test
+    void reusesConfigurationCache() {
+        BuildResult firstBuild = runGenerateManifest();
+        assertTrue(firstBuild.getOutput().contains(CACHE_STORED), firstBuild.getOutput());
+
+        BuildResult secondBuild = runGenerateManifest();
+        assertTrue(secondBuild.getOutput().contains(CACHE_REUSED), secondBuild.getOutput());
+        assertEquals(TaskOutcome.UP_TO_DATE, secondBuild.task(":generateManifest").getOutcome());
+    }
+
+    @Test
+    void renamedMainClassInvalidatesConfigurationCache() throws IOException {
+        runGenerateManifest();
+        Files.delete(projectDirectory.resolve("src/main/java/eu/koboo/test/TestPlugin.java"));
+        writeMainClass("RenamedPlugin");
+
+        BuildResult secondBuild = runGenerateManifest();
+        assertFalse(secondBuild.getOutput().contains(CACHE_REUSED), secondBuild.getOutput());
+        String manifest = Files.readString(projectDirectory.resolve("build/generated/pluginmanifest/manifest.json"));
+        assertTrue(manifest.contains("eu.koboo.test.RenamedPlugin"), manifest);
+
+        BuildResult thirdBuild = runGenerateManifest();
+        assertTrue(thirdBuild.getOutput().contains(CACHE_REUSED), thirdBuild.getOutput());
+    }
+
+    private BuildResult runGenerateManifest() {
+        return GradleRunner.create()
+            .withProjectDir(projectDirectory.toFile())
+            .withPluginClasspath()
+            .withArguments("generateManifest", "--configuration-cache", "--stacktrace")
+            .forwardOutput()
+            .build();
+    }
+
+    private void writeMainClass(String className) throws IOException {
+        Path sourceFile = projectDirectory.resolve("src/main/java/eu/koboo/test/" + className + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, """
+            package eu.koboo.test;
+
+            import com.hypixel.hytale.server.core.plugin.JavaPlugin;
+
+            public class %s extends JavaPlugin {
+            }
+            """.formatted(className));
+    }
+}
@@ -0,0 +1,61 @@
+plugins {
+    id("java-library")
+    id("maven-publish")
+}
+
+group = "eu.koboo"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+java {
+    toolchain.languageVersion.set(JavaLanguageVersion.of(25))
+    withSourcesJar()
+}
+
+tasks {
+    compileJava {
+        options.encoding = "UTF-8"
+    }
+}
+
+sourceSets {
+    main {
+        java.setSrcDirs(listOf("src"))
+        resources.setSrcDirs(listOf("resources"))
+    }
+    test {
+        java.setSrcDirs(emptyList<String>())
+        resources.setSrcDirs(emptyList<String>())
+    }
+}
+
+publishing {
+    publications {
+        create<MavenPublication>("processor") {
+            artifactId = "pluginmanifest-processor"
+            from(components["java"])
+        }
+    }
+    repositories {
+        mavenLocal()
+        maven {
+            name = "entixReposiliteReleases"
+            url = uri("https://repo.entix.eu/releases")
+            credentials {
+                username = System.getenv("ENTIX_REPO_USER")
+                password = System.getenv("ENTIX_REPO_PASS")
+            }
+        }
+        maven {
+            name = "entixReposiliteSnapshots"
+            url = uri("https://repo.entix.eu/snapshots")
+            credentials {
+                username = System.getenv("ENTIX_REPO_USER")
+                password = System.getenv("ENTIX_REPO_PASS")
+            }
+        }
+    }
+}
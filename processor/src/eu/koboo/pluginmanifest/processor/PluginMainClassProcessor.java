@@ -0,0 +1,95 @@
+package eu.koboo.pluginmanifest.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+// Records every concrete, top-level class extending JavaPlugin, while javac compiles the project.
+// The candidates end up in the generated sources directory, so they're never packed into the jar.
+// Registered for "*" as aggregating processor, so Gradle falls back to a full recompilation,
+// once the sources use SOURCE retention annotations (i.e. @Override or lombok).
+@SupportedAnnotationTypes("*")
+public class PluginMainClassProcessor extends AbstractProcessor {
+
+    public static final String JAVA_PLUGIN_CLASS = "com.hypixel.hytale.server.core.plugin.JavaPlugin";
+    public static final String CANDIDATES_RESOURCE = "pluginmanifest/main-class-candidates.txt";
+
+    private final Set<String> candidates = new TreeSet<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeCandidates();
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement typeElement = (TypeElement) element;
+            if (typeElement.getNestingKind() != NestingKind.TOP_LEVEL) {
+                continue;
+            }
+            if (typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            if (!extendsJavaPlugin(typeElement)) {
+                continue;
+            }
+            candidates.add(typeElement.getQualifiedName().toString());
+            originatingElements.add(typeElement);
+        }
+        // Never claim any annotation, other processors still need them.
+        return false;
+    }
+
+    private boolean extendsJavaPlugin(TypeElement typeElement) {
+        TypeMirror superType = typeElement.getSuperclass();
+        while (superType.getKind() == TypeKind.DECLARED) {
+            TypeElement superElement = (TypeElement) ((DeclaredType) superType).asElement();
+            if (superElement.getQualifiedName().contentEquals(JAVA_PLUGIN_CLASS)) {
+                return true;
+            }
+            superType = superElement.getSuperclass();
+        }
+        return false;
+    }
+
+    private void writeCandidates() {
+        // The file is written even without candidates, so "generateManifest" always finds it.
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(
+                StandardLocation.SOURCE_OUTPUT,
+                "",
+                CANDIDATES_RESOURCE,
+                originatingElements.toArray(new Element[0])
+            );
+            try (Writer writer = resource.openWriter()) {
+                for (String candidate : candidates) {
+                    writer.write(candidate);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "PluginManifest: Can't write pluginMainClass candidates: " + e.getMessage());
+        }
+    }
+}
@@ -1 +1,4 @@
-rootProject.name = "pluginmanifest"
\ No newline at end of file
+rootProject.name = "pluginmanifest"
+
+include("processor")
+include("benchmarks")
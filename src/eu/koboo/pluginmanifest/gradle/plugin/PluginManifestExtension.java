@@ -1,5 +1,7 @@
 package eu.koboo.pluginmanifest.gradle.plugin;
 
+import eu.koboo.pluginmanifest.gradle.plugin.extension.MainClassDetection;
+import eu.koboo.pluginmanifest.gradle.plugin.extension.benchmark.ServerBenchmarkExtension;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.clientinstall.ClientInstallationExtension;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.manifest.JsonManifestExtension;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.serverruntime.ServerRuntimeExtension;
@@ -19,16 +21,20 @@ public abstract class PluginManifestExtension {
     JsonManifestExtension jsonManifestExtension;
     ServerRuntimeExtension serverRuntimeExtension;
     ClientInstallationExtension installationExtension;
+    ServerBenchmarkExtension benchmarkExtension;
 
     Property<Boolean> addClientServerDependency;
     Property<Boolean> addDefaultRepositories;
     Property<Boolean> disableManifestGeneration;
+    Property<Integer> mainClassScanParallelism;
+    Property<MainClassDetection> mainClassDetection;
 
     @Inject
     public PluginManifestExtension(ObjectFactory objectFactory) {
         this.jsonManifestExtension = objectFactory.newInstance(JsonManifestExtension.class);
         this.serverRuntimeExtension = objectFactory.newInstance(ServerRuntimeExtension.class);
         this.installationExtension = objectFactory.newInstance(ClientInstallationExtension.class);
+        this.benchmarkExtension = objectFactory.newInstance(ServerBenchmarkExtension.class);
 
         this.addClientServerDependency = objectFactory.property(Boolean.class);
         this.addClientServerDependency.set(true);
@@ -36,6 +42,10 @@ public abstract class PluginManifestExtension {
         this.addDefaultRepositories.set(true);
         this.disableManifestGeneration = objectFactory.property(Boolean.class);
         this.disableManifestGeneration.set(false);
+        this.mainClassScanParallelism = objectFactory.property(Integer.class);
+        this.mainClassScanParallelism.set(1);
+        this.mainClassDetection = objectFactory.property(MainClassDetection.class);
+        this.mainClassDetection.set(MainClassDetection.SOURCE);
     }
 
     public void manifestConfiguration(Action<JsonManifestExtension> action) {
@@ -49,4 +59,8 @@ public abstract class PluginManifestExtension {
     public void clientInstallation(Action<ClientInstallationExtension> action) {
         action.execute(installationExtension);
     }
+
+    public void benchmarkConfiguration(Action<ServerBenchmarkExtension> action) {
+        action.execute(benchmarkExtension);
+    }
 }
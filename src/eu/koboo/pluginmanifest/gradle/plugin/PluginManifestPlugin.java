@@ -1,35 +1,57 @@
 package eu.koboo.pluginmanifest.gradle.plugin;
 
 import eu.koboo.pluginmanifest.gradle.plugin.extension.ClientFiles;
+import eu.koboo.pluginmanifest.gradle.plugin.extension.LogRetention;
+import eu.koboo.pluginmanifest.gradle.plugin.extension.MainClassDetection;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.Patchline;
+import eu.koboo.pluginmanifest.gradle.plugin.extension.benchmark.ServerBenchmarkExtension;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.clientinstall.ClientInstallationExtension;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.manifest.JsonManifestExtension;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.serverruntime.ServerRuntimeExtension;
+import eu.koboo.pluginmanifest.gradle.plugin.service.ClientInstallationService;
+import eu.koboo.pluginmanifest.gradle.plugin.service.ClientInstallationState;
+import eu.koboo.pluginmanifest.gradle.plugin.service.PluginTimingService;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.BenchmarkServerTask;
 import eu.koboo.pluginmanifest.gradle.plugin.tasks.DecompileServerTask;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.DetectMainClassTask;
 import eu.koboo.pluginmanifest.gradle.plugin.tasks.GenerateManifestTask;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.IndexModsTask;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.PluginDoctorTask;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.PrepareRuntimeTask;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.ResolvePluginDependenciesTask;
 import eu.koboo.pluginmanifest.gradle.plugin.tasks.RunServerTask;
 import eu.koboo.pluginmanifest.gradle.plugin.utils.JavaSourceUtils;
 import eu.koboo.pluginmanifest.gradle.plugin.utils.ProviderUtils;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.ConfigurableFileTree;
 import org.gradle.api.file.Directory;
+import org.gradle.api.file.FileTree;
 import org.gradle.api.file.RegularFile;
+import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.plugins.JavaPlugin;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
 import org.gradle.api.tasks.TaskProvider;
+import org.gradle.api.tasks.compile.JavaCompile;
+import org.gradle.build.event.BuildEventsListenerRegistry;
 import org.gradle.jvm.tasks.Jar;
 
+import javax.inject.Inject;
 import java.io.File;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 @FieldDefaults(level = AccessLevel.PRIVATE)
-public class PluginManifestPlugin implements Plugin<Project> {
+public abstract class PluginManifestPlugin implements Plugin<Project> {
 
     private static final String EXTENSION_NAME = "pluginManifest";
     private static final String TASK_GROUP_NAME = EXTENSION_NAME.toLowerCase(Locale.ROOT);
@@ -37,12 +59,43 @@ public class PluginManifestPlugin implements Plugin<Project> {
     private static final String GENERATE_MANIFEST = "generateManifest";
     private static final String RUN_SERVER = "runServer";
     private static final String DECOMPILE_SERVER = "decompileServer";
+    private static final String DETECT_MAIN_CLASS = "detectMainClass";
+    private static final String PLUGIN_DOCTOR = "pluginDoctor";
+    private static final String RESOLVE_PLUGIN_DEPENDENCIES = "resolvePluginDependencies";
+    private static final String INDEX_MODS = "indexMods";
+    private static final String PREPARE_RUNTIME = "prepareRuntime";
+    private static final String BENCHMARK_SERVER = "benchmarkServer";
+
+    public static final String RUNTIME_PLUGINS = "runtimePlugins";
 
     public static final String RESOURCE_DIRECTORY = "generated" + File.separator + "pluginmanifest";
+    public static final String CACHE_DIRECTORY = "tmp" + File.separator + "pluginmanifest";
     public static final String MANIFEST = "manifest.json";
+    public static final String MAIN_CLASS_CANDIDATES = "pluginmanifest" + File.separator + "main-class-candidates.txt";
+    public static final String DOCTOR_REPORT = "pluginmanifest" + File.separator + "doctor.json";
+    public static final String PLUGIN_LOCK = "pluginmanifest" + File.separator + "plugins.lock.json";
+    public static final String MODS_INDEX = "pluginmanifest" + File.separator + "mods-index.json";
+    public static final String BENCHMARK_DIRECTORY = "pluginmanifest" + File.separator + "benchmark";
+    public static final String MODS_INDEX_CACHE = CACHE_DIRECTORY + File.separator + "mods-index.cache";
+
+    // Matches the console line, once the server accepts players.
+    public static final String DEFAULT_READY_PATTERN = "(?i)server (is )?(booted|started|ready)";
+
+    private static final String PROCESSOR_ARTIFACT = "eu.koboo:pluginmanifest-processor";
+    private static final String PROCESSOR_CANDIDATES = "pluginmanifest/main-class-candidates.txt";
+
+    @Inject
+    protected abstract BuildEventsListenerRegistry getEventsListenerRegistry();
 
     @Override
     public void apply(Project target) {
+        // Opt-in timings of the configuration and task phases, see PluginTimingService.
+        if (PluginTimingService.isEnabled(target)) {
+            getEventsListenerRegistry().onTaskCompletion(PluginTimingService.register(target));
+        }
+
+        Provider<ClientInstallationService> clientInstallationService = ClientInstallationService.register(target);
+
         PluginManifestExtension extension = target.getExtensions().create(EXTENSION_NAME, PluginManifestExtension.class);
 
         JsonManifestExtension manifestExt = extension.jsonManifestExtension;
@@ -54,11 +107,31 @@ public class PluginManifestPlugin implements Plugin<Project> {
         ClientInstallationExtension installExt = extension.installationExtension;
         applyInstallDefaults(target, installExt);
 
+        ServerBenchmarkExtension benchmarkExt = extension.benchmarkExtension;
+
         TaskProvider<GenerateManifestTask> generateManifestProvider = target.getTasks().register(GENERATE_MANIFEST, GenerateManifestTask.class);
         TaskProvider<RunServerTask> runServerProvider = target.getTasks().register(RUN_SERVER, RunServerTask.class);
         TaskProvider<DecompileServerTask> decompileServerProvider = target.getTasks().register(DECOMPILE_SERVER, DecompileServerTask.class);
+        TaskProvider<DetectMainClassTask> detectMainClassProvider = target.getTasks().register(DETECT_MAIN_CLASS, DetectMainClassTask.class);
+        TaskProvider<PluginDoctorTask> pluginDoctorProvider = target.getTasks().register(PLUGIN_DOCTOR, PluginDoctorTask.class);
+        TaskProvider<ResolvePluginDependenciesTask> resolveDependenciesProvider = target.getTasks().register(RESOLVE_PLUGIN_DEPENDENCIES, ResolvePluginDependenciesTask.class);
+        TaskProvider<IndexModsTask> indexModsProvider = target.getTasks().register(INDEX_MODS, IndexModsTask.class);
+        TaskProvider<PrepareRuntimeTask> prepareRuntimeProvider = target.getTasks().register(PREPARE_RUNTIME, PrepareRuntimeTask.class);
+        TaskProvider<BenchmarkServerTask> benchmarkServerProvider = target.getTasks().register(BENCHMARK_SERVER, BenchmarkServerTask.class);
+
+        // Other plugins, the server should load next to ours, i.e. runtimePlugins("group:plugin:1.0.0")
+        Configuration runtimePlugins = target.getConfigurations().create(RUNTIME_PLUGINS, configuration -> {
+            configuration.setDescription("Plugins, which are synced into the runtime \"mods/\" directory.");
+            configuration.setCanBeConsumed(false);
+            configuration.setTransitive(false);
+        });
 
         target.afterEvaluate(project -> {
+            File projectDirectory = project.getLayout().getProjectDirectory().getAsFile();
+
+            // Group and version are assigned by the build script now.
+            manifestExt.getPluginGroup().convention(ProviderUtils.createPluginGroupProvider(project));
+            manifestExt.getPluginVersion().convention(ProviderUtils.createPluginVersionProvider(project));
 
             // Applying server dependency as a file.
             if (extension.getAddClientServerDependency().get()) {
@@ -83,21 +156,52 @@ public class PluginManifestPlugin implements Plugin<Project> {
                     repository.setName("hytale-pre-release");
                     repository.setUrl("https://maven.hytale.com/pre-release");
                 });
+                if (extension.getMainClassDetection().get() == MainClassDetection.ANNOTATION_PROCESSOR) {
+                    project.getRepositories().maven(repository -> {
+                        repository.setName("pluginmanifest-processor");
+                        repository.setUrl("https://repo.entix.eu/releases");
+                        repository.mavenContent(content -> content.includeModule("eu.koboo", "pluginmanifest-processor"));
+                    });
+                }
+            }
+
+            // Adding our annotation processor, which records the mainClass candidates.
+            MainClassDetection mainClassDetection = extension.getMainClassDetection().get();
+            if (mainClassDetection == MainClassDetection.ANNOTATION_PROCESSOR) {
+                String pluginVersion = PluginManifestPlugin.class.getPackage().getImplementationVersion();
+                if (pluginVersion == null) {
+                    throw new GradleException("Can't resolve version of the pluginmanifest annotation processor!");
+                }
+                project.getDependencies().add(
+                    JavaPlugin.ANNOTATION_PROCESSOR_CONFIGURATION_NAME,
+                    PROCESSOR_ARTIFACT + ":" + pluginVersion
+                );
             }
 
             // Adding PROJECT/build/generated/pluginmanifest/ to sourceSet resources.
             Provider<Directory> generatedResourceDir = project.getLayout()
                 .getBuildDirectory()
                 .dir(RESOURCE_DIRECTORY);
+            SourceSet mainSourceSet = project.getExtensions()
+                .getByType(SourceSetContainer.class)
+                .getByName("main");
             if (!extension.getDisableManifestGeneration().get()) {
-                SourceSet mainSourceSet = project.getExtensions()
-                    .getByType(SourceSetContainer.class)
-                    .getByName("main");
                 mainSourceSet.getResources().srcDir(generatedResourceDir);
             }
 
-            Jar archiveTask = JavaSourceUtils.resolveArchiveTask(project);
-            Provider<RegularFile> archiveFileProvider = archiveTask.getArchiveFile();
+            //
+            // ==== "detectMainClass" ====
+            //
+            detectMainClassProvider.configure(task -> {
+                task.setGroup(TASK_GROUP_NAME);
+                task.setDescription("Detects the pluginMainClass candidates from the compiled class files.");
+                task.getClassesDirectories().from(mainSourceSet.getOutput().getClassesDirs());
+                task.getCompileClasspath().from(mainSourceSet.getCompileClasspath());
+                task.getCandidatesFile().set(project.getLayout().getBuildDirectory().file(MAIN_CLASS_CANDIDATES));
+            });
+
+            TaskProvider<Jar> archiveTaskProvider = JavaSourceUtils.resolveArchiveTask(project);
+            Provider<RegularFile> archiveFileProvider = archiveTaskProvider.flatMap(Jar::getArchiveFile);
 
             //
             // ==== "generateManifestJson" ====
@@ -108,23 +212,58 @@ public class PluginManifestPlugin implements Plugin<Project> {
                 task.getResourceDirectory().set(generatedResourceDir);
                 task.getManifestMap().set(ProviderUtils.createManifestProvider(project));
                 task.getDisableManifestGeneration().set(extension.getDisableManifestGeneration());
+                // Reads the version of the HytaleServer.jar
+                task.usesService(clientInstallationService);
+                if (extension.getAddClientServerDependency().get()) {
+                    task.getServerJarFile().set(ProviderUtils.createOptionalProvider(project,
+                        installExt.provideClientFile(ClientFiles.SERVER_JAR).filter(file -> file.getAsFile().isFile())));
+                    task.getServerJarVersion().set(task.getServerJarFile().zip(clientInstallationService,
+                        (serverJarFile, service) -> service.getJarVersion(serverJarFile.getAsFile())));
+                }
+                // The SOURCE detection is part of the pluginMainClass convention,
+                // so it's only queried for the other modes and doesn't become an input of the configuration cache.
+                if (mainClassDetection != MainClassDetection.SOURCE && !manifestExt.getPluginMainClass().isPresent()) {
+                    if (mainClassDetection == MainClassDetection.BYTECODE) {
+                        task.getMainClassCandidatesFile().set(detectMainClassProvider.flatMap(DetectMainClassTask::getCandidatesFile));
+                    }
+                    if (mainClassDetection == MainClassDetection.ANNOTATION_PROCESSOR) {
+                        task.getMainClassCandidatesFile().set(project.getTasks()
+                            .named(JavaPlugin.COMPILE_JAVA_TASK_NAME, JavaCompile.class)
+                            .flatMap(compileTask -> compileTask.getOptions().getGeneratedSourceOutputDirectory().file(PROCESSOR_CANDIDATES)));
+                    }
+                }
             });
             // Create task dependencies for "generateManifest"
             if (!extension.getDisableManifestGeneration().get()) {
-                Task processResources = target.getTasks().getByName("processResources");
-                processResources.dependsOn(generateManifestProvider);
-                Task javadocJar = target.getTasks().getByName("javadocJar");
-                javadocJar.dependsOn(generateManifestProvider);
-                Task sourcesJar = target.getTasks().getByName("sourcesJar");
-                sourcesJar.dependsOn(generateManifestProvider);
+                Set<String> taskNames = target.getTasks().getNames();
+                for (String taskName : List.of("processResources", "javadocJar", "sourcesJar")) {
+                    if (taskNames.contains(taskName)) {
+                        target.getTasks().named(taskName).configure(task -> task.dependsOn(generateManifestProvider));
+                    }
+                }
             }
 
             //
-            // ==== "runServer" ====
+            // ==== "prepareRuntime" ====
             //
-            runServerProvider.configure(task -> {
+            prepareRuntimeProvider.configure(task -> {
                 task.setGroup(TASK_GROUP_NAME);
-                task.setDescription("Runs the server in your server directory with console support in the terminal.");
+                task.setDescription("Copies the plugin and the runtimePlugins into the runtime \"mods/\" directory.");
+                task.getArchiveFile().set(archiveFileProvider);
+                task.getRuntimePlugins().from(runtimePlugins);
+                task.getRuntimeDirectory().set(runtimeExt.provideRuntimeDirectory(project));
+                task.getCopyPluginToRuntime().set(runtimeExt.getCopyPluginToRuntime());
+                if (runtimeExt.getLinkServerJar().get()) {
+                    task.getClientServerJarFile().set(installExt.provideClientFile(ClientFiles.SERVER_JAR));
+                }
+            });
+
+            //
+            // ==== "runServer" ====
+            //
+            // Shared with "benchmarkServer", which starts the same server.
+            Action<RunServerTask> runServerConfiguration = task -> {
+                task.dependsOn(prepareRuntimeProvider);
 
                 task.getClientServerJarFile().set(installExt.provideClientFile(ClientFiles.SERVER_JAR));
                 task.getClientAOTFile().set(installExt.provideClientFile(ClientFiles.AOT_FILE));
@@ -134,10 +273,51 @@ public class PluginManifestPlugin implements Plugin<Project> {
                 task.getRuntimeDirectory().set(runtimeExt.provideRuntimeDirectory(project));
                 task.getCopyPluginToRuntime().set(runtimeExt.getCopyPluginToRuntime());
                 task.getDeleteLogsOnStart().set(runtimeExt.getDeleteLogsOnStart());
+                task.getLogRetention().set(runtimeExt.getLogRetention());
+                task.getMaxArchivedLogRuns().set(runtimeExt.getMaxArchivedLogRuns());
+                task.getMaxArchivedLogMegabytes().set(runtimeExt.getMaxArchivedLogMegabytes());
 
                 task.getAllowOp().set(runtimeExt.getAllowOp());
+                task.getBindAddress().set(runtimeExt.getBindAddress());
+                task.getInstances().convention(runtimeExt.getInstances().map(String::valueOf));
                 task.getUserJvmArguments().set(runtimeExt.getJvmArguments());
                 task.getUserServerArguments().set(runtimeExt.getServerArguments());
+
+                task.getWatch().convention(false);
+                task.getWatchDebounceMillis().set(runtimeExt.getWatchDebounceMillis());
+                task.getStopTimeoutSeconds().set(runtimeExt.getStopTimeoutSeconds());
+
+                task.getTrainAOT().convention(false);
+                task.getRetrainAOTAutomatically().set(runtimeExt.getRetrainAOTAutomatically());
+                task.getReadyPattern().set(runtimeExt.getReadyPattern());
+                task.getReadyTimeoutSeconds().set(runtimeExt.getReadyTimeoutSeconds());
+            };
+            runServerProvider.configure(task -> {
+                task.setGroup(TASK_GROUP_NAME);
+                task.setDescription("Runs the server in your server directory with console support in the terminal.");
+                runServerConfiguration.execute(task);
+            });
+
+            //
+            // ==== "benchmarkServer" ====
+            //
+            benchmarkServerProvider.configure(task -> {
+                task.setGroup(TASK_GROUP_NAME);
+                task.setDescription("Measures the time until the server is ready for every configured set of jvm arguments.");
+                runServerConfiguration.execute(task);
+                task.getInstances().set("1");
+                task.getWatch().set(false);
+                task.getTrainAOT().set(false);
+
+                task.getIterations().set(benchmarkExt.getIterations());
+                task.getWarmupIterations().set(benchmarkExt.getWarmupIterations());
+                task.getJvmArgumentSets().set(benchmarkExt.getJvmArgumentSets());
+                task.getProbePort().set(benchmarkExt.getProbePort());
+                task.getHistoryFile().set(project.getLayout().getProjectDirectory().file(benchmarkExt.getHistoryFile()));
+                task.getRegressionThresholdPercent().set(benchmarkExt.getRegressionThresholdPercent());
+                task.getBaselineRuns().set(benchmarkExt.getBaselineRuns());
+                task.getPluginVersion().set(manifestExt.getPluginVersion());
+                task.getReportDirectory().set(project.getLayout().getBuildDirectory().dir(BENCHMARK_DIRECTORY));
             });
 
             //
@@ -147,41 +327,115 @@ public class PluginManifestPlugin implements Plugin<Project> {
                 task.setGroup(TASK_GROUP_NAME);
                 task.setDescription("Decompiles the server sources from and into the client installation path");
                 task.getClientServerJarFile().set(installExt.provideClientFile(ClientFiles.SERVER_JAR));
+                task.getServerFingerprint().set(installExt.provideServerFingerprint(clientInstallationService));
                 task.getClientSourcesJarPath().set(installExt.provideClientPath(ClientFiles.SOURCES_JAR));
+                // Up-to-date, as long as the sources exist and the server didn't change.
+                task.getOutputs().file(installExt.provideClientPath(ClientFiles.SOURCES_JAR));
                 task.getVineflowerJarPath().set(installExt.provideClientPath(ClientFiles.VINEFLOWER_JAR));
+                task.getClientInstallationService().set(clientInstallationService);
+                task.usesService(clientInstallationService);
+                task.doLast("markSourcesDecompiled", decompileTask -> ((DecompileServerTask) decompileTask).markSourcesDecompiled());
+            });
+
+            //
+            // ==== "pluginDoctor" ====
+            //
+            pluginDoctorProvider.configure(task -> {
+                task.setGroup(TASK_GROUP_NAME);
+                task.setDescription("Prints information about your client installation, manifest, jar file and runtime.");
+                task.getProjectName().set(project.getName());
+                task.getClientInstallDirectory().set(ProviderUtils.createOptionalProvider(project, installExt.getClientInstallDirectory()));
+                task.getPatchline().set(ProviderUtils.createOptionalProvider(project, installExt.resolvePatchlineProvider()));
+                task.getClientServerJarFile().set(ProviderUtils.createOptionalProvider(project, installExt.provideClientFile(ClientFiles.SERVER_JAR)));
+                task.getClientAOTFile().set(ProviderUtils.createOptionalProvider(project, installExt.provideClientFile(ClientFiles.AOT_FILE)));
+                task.getClientSourcesFile().set(ProviderUtils.createOptionalProvider(project, installExt.provideClientFile(ClientFiles.SOURCES_JAR)));
+                task.getClientAssetsFile().set(ProviderUtils.createOptionalProvider(project, installExt.provideClientFile(ClientFiles.ASSETS_ZIP)));
+                task.getRuntimeDirectory().set(ProviderUtils.createOptionalProvider(project, project.getProviders().provider(() ->
+                    runtimeExt.provideRuntimeDirectory(projectDirectory).getAbsolutePath()
+                )));
+                task.getArchiveTaskName().set(archiveTaskProvider.getName());
+                task.getArchiveFile().set(archiveFileProvider);
+                task.getManifestMap().set(ProviderUtils.createManifestProvider(project));
+                task.getDisableManifestGeneration().set(extension.getDisableManifestGeneration());
+                task.getJsonReportFile().set(project.getLayout().getBuildDirectory().file(DOCTOR_REPORT));
+                task.getClientInstallationService().set(clientInstallationService);
+                task.usesService(clientInstallationService);
+            });
+
+            Provider<File> modsDirectoryProvider = ProviderUtils.createOptionalProvider(project, project.getProviders().provider(() ->
+                new File(runtimeExt.provideRuntimeDirectory(projectDirectory), "mods")
+            ));
+            ObjectFactory objects = project.getObjects();
+            Provider<FileTree> modsJarsProvider = modsDirectoryProvider.map(directory -> {
+                ConfigurableFileTree modsJars = objects.fileTree().from(directory);
+                modsJars.include("*.jar", "*.zip");
+                return modsJars;
             });
 
             //
-            // ==== INFORMATION PRINTING ====
+            // ==== "indexMods" ====
             //
+            indexModsProvider.configure(task -> {
+                task.setGroup(TASK_GROUP_NAME);
+                task.setDescription("Indexes the manifest.json of all plugins in the runtime \"mods/\" directory.");
+                task.getPluginJars().from(modsJarsProvider);
+                task.getIndexCacheFile().set(project.getLayout().getBuildDirectory().file(MODS_INDEX_CACHE));
+                task.getParallelism().convention(Runtime.getRuntime().availableProcessors());
+                task.getIndexFile().set(project.getLayout().getBuildDirectory().file(MODS_INDEX));
+            });
 
-            PluginDoctor.printDoctor(project);
+            //
+            // ==== "resolvePluginDependencies" ====
+            //
+            resolveDependenciesProvider.configure(task -> {
+                task.setGroup(TASK_GROUP_NAME);
+                task.setDescription("Checks the dependencies of all plugins in the runtime \"mods/\" directory and computes their load order.");
+                task.getPluginJars().from(modsJarsProvider);
+                task.getIndexCacheFile().set(project.getLayout().getBuildDirectory().file(MODS_INDEX_CACHE));
+                task.getParallelism().convention(Runtime.getRuntime().availableProcessors());
+                if (!extension.getDisableManifestGeneration().get()) {
+                    task.getManifestMap().set(ProviderUtils.createManifestProvider(project));
+                }
+                task.getIgnoreProblems().convention(false);
+                task.getLockFile().set(project.getLayout().getBuildDirectory().file(PLUGIN_LOCK));
+            });
         });
     }
 
     private void applyManifestDefaults(Project project, JsonManifestExtension manifestExt) {
-        manifestExt.getPluginGroup().convention(ProviderUtils.createPluginGroupProvider(project));
         manifestExt.getPluginName().convention(ProviderUtils.createPluginNameProvider(project));
-        manifestExt.getPluginVersion().convention(ProviderUtils.createPluginVersionProvider(project));
-        manifestExt.getPluginMainClass().convention(ProviderUtils.createPluginMainClassCandidateProvider(project));
+        manifestExt.getPluginMainClass().convention(ProviderUtils.createTimedProvider(project, "mainClassDetection",
+            ProviderUtils.createPluginMainClassCandidateProvider(project)));
         manifestExt.getServerVersion().convention("*");
         manifestExt.getDisabledByDefault().convention(false);
-        manifestExt.getIncludesAssetPack().convention(ProviderUtils.createHasResourcesProvider(project));
+        manifestExt.getIncludesAssetPack().convention(ProviderUtils.createTimedProvider(project, "resourceDetection",
+            ProviderUtils.createHasResourcesProvider(project)));
     }
 
     private void applyRuntimeDefault(Project project, ServerRuntimeExtension runtimeExtension) {
         runtimeExtension.getIsProjectRelative().convention(true);
         runtimeExtension.getCopyPluginToRuntime().convention(false);
+        runtimeExtension.getLinkServerJar().convention(false);
         runtimeExtension.getDeleteLogsOnStart().convention(true);
+        runtimeExtension.getLogRetention().convention(LogRetention.DELETE);
+        runtimeExtension.getMaxArchivedLogRuns().convention(20);
+        runtimeExtension.getMaxArchivedLogMegabytes().convention(256L);
 
         runtimeExtension.getAllowOp().convention(true);
         runtimeExtension.getBindAddress().convention("0.0.0.0:5520");
+        runtimeExtension.getInstances().convention(1);
         runtimeExtension.getJvmArguments().convention(new LinkedList<>());
         runtimeExtension.getServerArguments().convention(new LinkedList<>());
+        runtimeExtension.getWatchDebounceMillis().convention(500L);
+        runtimeExtension.getStopTimeoutSeconds().convention(30L);
+        runtimeExtension.getRetrainAOTAutomatically().convention(false);
+        runtimeExtension.getReadyPattern().convention(DEFAULT_READY_PATTERN);
+        runtimeExtension.getReadyTimeoutSeconds().convention(300L);
     }
 
     private void applyInstallDefaults(Project project, ClientInstallationExtension installExt) {
         installExt.getPatchline().convention(Patchline.RELEASE);
-        installExt.getClientInstallDirectory().convention(installExt.createDefaultAppDataProvider());
+        installExt.getClientInstallDirectory().convention(ProviderUtils.createTimedProvider(project, "clientInstallationDiscovery",
+            installExt.createDefaultAppDataProvider(ClientInstallationState.getStateFile(project.getGradle().getGradleUserHomeDir()))));
     }
 }
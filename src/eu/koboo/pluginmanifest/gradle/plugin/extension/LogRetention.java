@@ -0,0 +1,9 @@
+package eu.koboo.pluginmanifest.gradle.plugin.extension;
+
+public enum LogRetention {
+
+    // Deletes the logs of the previous run in the background.
+    DELETE,
+    // Gzips the logs of the previous run into "logs-archive/" in the background.
+    ARCHIVE,
+}
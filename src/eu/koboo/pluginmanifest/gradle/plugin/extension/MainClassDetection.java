@@ -0,0 +1,13 @@
+package eu.koboo.pluginmanifest.gradle.plugin.extension;
+
+public enum MainClassDetection {
+
+    // Parses the java source files while configuring the project.
+    SOURCE,
+    // Reads the compiled class files after "compileJava".
+    BYTECODE,
+    // Records the candidates with an annotation processor during "compileJava".
+    // The processor is registered for "*", so Gradle recompiles all sources,
+    // as soon as any SOURCE retention annotation (i.e. @Override or lombok) is used.
+    ANNOTATION_PROCESSOR,
+}
@@ -0,0 +1,50 @@
+package eu.koboo.pluginmanifest.gradle.plugin.extension.benchmark;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+
+import javax.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public abstract class ServerBenchmarkExtension {
+
+    Property<Integer> iterations;
+    Property<Integer> warmupIterations;
+    MapProperty<String, List<String>> jvmArgumentSets;
+    Property<Boolean> probePort;
+
+    Property<String> historyFile;
+    Property<Double> regressionThresholdPercent;
+    Property<Integer> baselineRuns;
+
+    @Inject
+    @SuppressWarnings("unchecked")
+    public ServerBenchmarkExtension(ObjectFactory objectFactory) {
+        iterations = objectFactory.property(Integer.class);
+        iterations.convention(5);
+        warmupIterations = objectFactory.property(Integer.class);
+        warmupIterations.convention(1);
+        jvmArgumentSets = objectFactory.mapProperty(String.class, (Class<List<String>>) (Class<?>) List.class);
+        jvmArgumentSets.convention(new LinkedHashMap<>());
+        probePort = objectFactory.property(Boolean.class);
+        probePort.convention(false);
+
+        historyFile = objectFactory.property(String.class);
+        historyFile.convention("server-benchmarks.jsonl");
+        regressionThresholdPercent = objectFactory.property(Double.class);
+        regressionThresholdPercent.convention(10.0);
+        baselineRuns = objectFactory.property(Integer.class);
+        baselineRuns.convention(5);
+    }
+
+    public void jvmArgumentSet(String name, List<String> jvmArguments) {
+        jvmArgumentSets.put(name, jvmArguments);
+    }
+}
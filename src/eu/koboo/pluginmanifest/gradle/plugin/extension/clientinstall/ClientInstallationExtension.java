@@ -1,6 +1,8 @@
 package eu.koboo.pluginmanifest.gradle.plugin.extension.clientinstall;
 
 import eu.koboo.pluginmanifest.gradle.plugin.extension.Patchline;
+import eu.koboo.pluginmanifest.gradle.plugin.service.ClientInstallationService;
+import eu.koboo.pluginmanifest.gradle.plugin.valuesource.ClientDirectoryValueSource;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.FieldDefaults;
@@ -13,6 +15,7 @@ import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.provider.ProviderFactory;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.inject.Inject;
 import java.io.File;
@@ -79,6 +82,13 @@ public abstract class ClientInstallationExtension {
         );
     }
 
+    // Changes, whenever the launcher updates the server of the patchline, use it as input of derived artifacts.
+    public Provider<String> provideServerFingerprint(Provider<ClientInstallationService> serviceProvider) {
+        return serviceProvider.map(service ->
+            service.getServerFingerprint(clientDirectory().dir(getLatestDirectoryPath()).getAsFile())
+        );
+    }
+
     public String getLatestDirectoryPath() {
         // install/PATCHLINE/package/game/latest/
         String patchlineName = resolvePatchlineProvider().get();
@@ -86,46 +96,66 @@ public abstract class ClientInstallationExtension {
     }
 
     public Provider<String> createDefaultAppDataProvider() {
-        return getProviderFactory().provider(() -> {
-            List<String> appDataPathList = getAppDataPathList();
-            List<String> modifiedPathList = new ArrayList<>();
-            File defaultClientDirectory = null;
-            for (String directoryPath : appDataPathList) {
-                directoryPath = directoryPath.trim();
-                if (!directoryPath.endsWith("/")) {
-                    directoryPath += "/";
-                }
-                directoryPath += "Hytale/";
-                modifiedPathList.add(directoryPath);
-                File clientHome = new File(directoryPath);
-                if (!clientHome.exists()) {
-                    continue;
-                }
-                if (!clientHome.isDirectory()) {
-                    continue;
-                }
-                File[] files = clientHome.listFiles();
-                if (files == null || files.length == 0) {
-                    continue;
-                }
-                defaultClientDirectory = clientHome;
-                break;
-            }
-            appDataPathList.clear();
-            if (defaultClientDirectory == null) {
-                String paths = String.join("\n - ", modifiedPathList);
-                throw new InvalidUserDataException("Cannot discover client installation. Searched at: " + paths);
+        return createDefaultAppDataProvider(null);
+    }
+
+    // The discovery runs in a ValueSource, so a reused configuration cache notices a moved installation.
+    // The environment is read through providers, so it's an input of the configuration cache.
+    public Provider<String> createDefaultAppDataProvider(@Nullable File stateFile) {
+        ProviderFactory providers = getProviderFactory();
+        Provider<String> appDataEnv = providers.environmentVariable("APPDATA");
+        Provider<String> dataHomeEnv = providers.environmentVariable("XDG_DATA_HOME");
+        Provider<String> userHome = providers.systemProperty("user.home");
+        Provider<List<String>> searchPaths = providers.provider(() ->
+            getClientSearchPaths(appDataEnv.getOrNull(), userHome.getOrNull(), dataHomeEnv.getOrNull())
+        );
+        Provider<String> discoveredDirectory = providers.of(ClientDirectoryValueSource.class, spec -> {
+            spec.getParameters().getSearchPaths().set(searchPaths);
+            if (stateFile != null) {
+                spec.getParameters().getStateFile().set(stateFile);
             }
-            return defaultClientDirectory.getAbsolutePath();
         });
+        return discoveredDirectory.orElse(providers.provider(() -> {
+            String paths = String.join("\n - ", searchPaths.get());
+            throw new InvalidUserDataException("Cannot discover client installation. Searched at: " + paths);
+        }));
     }
 
-    private static @NotNull List<String> getAppDataPathList() {
-        List<String> appDataDirectories = new ArrayList<>();
+    public static @NotNull String discoverClientDirectory(@NotNull List<String> searchPaths) {
+        for (String directoryPath : searchPaths) {
+            File clientHome = new File(directoryPath);
+            if (!clientHome.exists()) {
+                continue;
+            }
+            if (!clientHome.isDirectory()) {
+                continue;
+            }
+            File[] files = clientHome.listFiles();
+            if (files == null || files.length == 0) {
+                continue;
+            }
+            return clientHome.getAbsolutePath();
+        }
+        String paths = String.join("\n - ", searchPaths);
+        throw new InvalidUserDataException("Cannot discover client installation. Searched at: " + paths);
+    }
 
-        String userHome = System.getProperty("user.home");
-        String dataHomeEnv = System.getenv("XDG_DATA_HOME");
-        String appDataEnv = System.getenv("APPDATA");
+    public static @NotNull List<String> getClientSearchPaths(@Nullable String appDataEnv, @Nullable String userHome,
+                                                             @Nullable String dataHomeEnv) {
+        List<String> searchPaths = new ArrayList<>();
+        for (String directoryPath : getAppDataPathList(appDataEnv, userHome, dataHomeEnv)) {
+            directoryPath = directoryPath.trim();
+            if (!directoryPath.endsWith("/")) {
+                directoryPath += "/";
+            }
+            directoryPath += "Hytale/";
+            searchPaths.add(directoryPath);
+        }
+        return searchPaths;
+    }
+
+    private static @NotNull List<String> getAppDataPathList(String appDataEnv, String userHome, String dataHomeEnv) {
+        List<String> appDataDirectories = new ArrayList<>();
 
         if (appDataEnv != null && !appDataEnv.trim().isEmpty()) {
             // Windows
@@ -1,5 +1,6 @@
 package eu.koboo.pluginmanifest.gradle.plugin.extension.serverruntime;
 
+import eu.koboo.pluginmanifest.gradle.plugin.extension.LogRetention;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.experimental.FieldDefaults;
@@ -19,34 +20,62 @@ public abstract class ServerRuntimeExtension {
     Property<String> runtimeDirectory;
     Property<Boolean> isProjectRelative;
     Property<Boolean> copyPluginToRuntime;
+    Property<Boolean> linkServerJar;
     Property<Boolean> deleteLogsOnStart;
+    Property<LogRetention> logRetention;
+    Property<Integer> maxArchivedLogRuns;
+    Property<Long> maxArchivedLogMegabytes;
 
     Property<Boolean> allowOp;
     Property<String> bindAddress;
+    Property<Integer> instances;
     ListProperty<String> jvmArguments;
     ListProperty<String> serverArguments;
 
+    Property<Long> watchDebounceMillis;
+    Property<Long> stopTimeoutSeconds;
+
+    Property<Boolean> retrainAOTAutomatically;
+    Property<String> readyPattern;
+    Property<Long> readyTimeoutSeconds;
+
     @Inject
     public ServerRuntimeExtension(ObjectFactory objectFactory) {
         runtimeDirectory = objectFactory.property(String.class);
         isProjectRelative = objectFactory.property(Boolean.class);
         copyPluginToRuntime = objectFactory.property(Boolean.class);
+        linkServerJar = objectFactory.property(Boolean.class);
         deleteLogsOnStart = objectFactory.property(Boolean.class);
+        logRetention = objectFactory.property(LogRetention.class);
+        maxArchivedLogRuns = objectFactory.property(Integer.class);
+        maxArchivedLogMegabytes = objectFactory.property(Long.class);
 
         allowOp = objectFactory.property(Boolean.class);
         bindAddress = objectFactory.property(String.class);
+        instances = objectFactory.property(Integer.class);
         jvmArguments = objectFactory.listProperty(String.class);
         serverArguments = objectFactory.listProperty(String.class);
+
+        watchDebounceMillis = objectFactory.property(Long.class);
+        stopTimeoutSeconds = objectFactory.property(Long.class);
+
+        retrainAOTAutomatically = objectFactory.property(Boolean.class);
+        readyPattern = objectFactory.property(String.class);
+        readyTimeoutSeconds = objectFactory.property(Long.class);
     }
 
     public File provideRuntimeDirectory(Project project) {
+        return provideRuntimeDirectory(project.getLayout().getProjectDirectory().getAsFile());
+    }
+
+    // Used in providers, which only capture the project directory.
+    public File provideRuntimeDirectory(File projectDirectory) {
         String runtimeDirectoryPath = getRuntimeDirectory().getOrNull();
         if (runtimeDirectoryPath == null || runtimeDirectoryPath.trim().isEmpty()) {
             throw new InvalidUserDataException("Can't resolve runtimeDirectory, no path set!");
         }
         File runtimeDirectory;
         if (getIsProjectRelative().get()) {
-            File projectDirectory = project.getLayout().getProjectDirectory().getAsFile();
             runtimeDirectory = new File(projectDirectory, runtimeDirectoryPath);
         } else {
             runtimeDirectory = new File(runtimeDirectoryPath);
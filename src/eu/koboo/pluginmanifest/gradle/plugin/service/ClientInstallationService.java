@@ -0,0 +1,148 @@
+package eu.koboo.pluginmanifest.gradle.plugin.service;
+
+import eu.koboo.pluginmanifest.gradle.plugin.extension.ClientFiles;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JarManifestUtils;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import org.gradle.api.Project;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Facts about the client installation, which are equal for every project of the build.
+// Computed once per build and shared between all projects and tasks, also with parallel configuration.
+// The fingerprints of the server files are persisted in the Gradle user home, see ClientInstallationState.
+public abstract class ClientInstallationService implements BuildService<ClientInstallationService.Parameters> {
+
+    public static final String NAME = "pluginManifestClientInstallation";
+
+    public interface Parameters extends BuildServiceParameters {
+
+        RegularFileProperty getStateFile();
+
+        // Persistent cache of the jar manifests, see JarManifestUtils
+        DirectoryProperty getJarManifestCacheDirectory();
+    }
+
+    // Path, size and mtime -> "Implementation-Version" of the jar, the in-memory cache of the jar manifests
+    private final Map<String, String> jarVersions = new ConcurrentHashMap<>();
+    // Latest directory of a patchline -> fingerprint of its server files
+    private final Map<String, ServerFingerprint> fingerprints = new ConcurrentHashMap<>();
+    // Consumer and latest directory -> changed since the consumer's previous build
+    private final Map<String, Boolean> changedServers = new ConcurrentHashMap<>();
+    private Properties state;
+
+    public static Provider<ClientInstallationService> register(Project project) {
+        return project.getGradle().getSharedServices()
+            .registerIfAbsent(NAME, ClientInstallationService.class, spec -> {
+                File gradleUserHome = project.getGradle().getGradleUserHomeDir();
+                spec.getParameters().getStateFile().set(ClientInstallationState.getStateFile(gradleUserHome));
+                spec.getParameters().getJarManifestCacheDirectory().set(new File(gradleUserHome, JarManifestUtils.CACHE_DIRECTORY));
+            });
+    }
+
+    public @NotNull String getJarVersion(@Nullable File jarFile) {
+        File cacheDirectory = getParameters().getJarManifestCacheDirectory().getAsFile().get();
+        if (jarFile == null || !jarFile.isFile()) {
+            return JarManifestUtils.getVersion(jarFile, cacheDirectory);
+        }
+        String key = jarFile.getAbsolutePath() + "|" + jarFile.length() + "|" + jarFile.lastModified();
+        return jarVersions.computeIfAbsent(key, ignored -> JarManifestUtils.getVersion(jarFile, cacheDirectory));
+    }
+
+    // Size, mtime and version of the server files in "install/PATCHLINE/package/game/latest/".
+    // Changes, whenever the launcher updates the server, so it can be used as input of derived artifacts.
+    public @NotNull String getServerFingerprint(@NotNull File latestDirectory) {
+        return fingerprint(latestDirectory).encode();
+    }
+
+    // True, if the server files differ from the ones, which the consumer saw in its previous build.
+    // Every consumer remembers its own fingerprint and the answer stays the same for the whole build,
+    // so reading it doesn't hide the change from other tasks.
+    public boolean hasServerChanged(@NotNull File latestDirectory, @NotNull String consumer) {
+        String key = ClientInstallationState.CHANGED_KEY + consumer + "." + latestDirectory.getAbsolutePath();
+        return changedServers.computeIfAbsent(key, ignored -> {
+            String fingerprint = getServerFingerprint(latestDirectory);
+            String previous = getState(key);
+            if (fingerprint.equals(previous)) {
+                return false;
+            }
+            setState(key, fingerprint);
+            return previous != null;
+        });
+    }
+
+    // True, if HytaleServer-sources.jar was decompiled from other server files, than the current ones.
+    public boolean areSourcesOutdated(@NotNull File latestDirectory) {
+        String sourcesFingerprint = getState(ClientInstallationState.SOURCES_KEY + latestDirectory.getAbsolutePath());
+        return sourcesFingerprint != null && !sourcesFingerprint.equals(getServerFingerprint(latestDirectory));
+    }
+
+    public void markSourcesDecompiled(@NotNull File latestDirectory) {
+        setState(ClientInstallationState.SOURCES_KEY + latestDirectory.getAbsolutePath(), getServerFingerprint(latestDirectory));
+    }
+
+    private ServerFingerprint fingerprint(File latestDirectory) {
+        String key = latestDirectory.getAbsolutePath();
+        return fingerprints.computeIfAbsent(key, ignored -> {
+            File serverJarFile = new File(latestDirectory, ClientFiles.SERVER_JAR);
+            ServerFingerprint fingerprint = new ServerFingerprint(
+                stat(serverJarFile),
+                serverJarFile.isFile() ? getJarVersion(serverJarFile) : "-",
+                stat(new File(latestDirectory, ClientFiles.AOT_FILE)),
+                stat(new File(latestDirectory, ClientFiles.ASSETS_ZIP))
+            );
+            String encoded = fingerprint.encode();
+            String previous = getState(ClientInstallationState.FINGERPRINT_KEY + key);
+            if (encoded.equals(previous)) {
+                return fingerprint;
+            }
+            setState(ClientInstallationState.FINGERPRINT_KEY + key, encoded);
+            if (previous != null) {
+                PluginLog.info("The server in " + key + " has changed, version "
+                    + ServerFingerprint.decodeVersion(previous) + " -> " + fingerprint.serverJarVersion + "!");
+            }
+            return fingerprint;
+        });
+    }
+
+    private static String stat(File file) {
+        if (!file.isFile()) {
+            return "-";
+        }
+        return file.length() + ":" + file.lastModified();
+    }
+
+    private synchronized String getState(String key) {
+        if (state == null) {
+            state = ClientInstallationState.load(getParameters().getStateFile().getAsFile().get());
+        }
+        return state.getProperty(key);
+    }
+
+    private synchronized void setState(String key, String value) {
+        getState(key);
+        state.setProperty(key, value);
+        ClientInstallationState.update(getParameters().getStateFile().getAsFile().get(), Map.of(key, value));
+    }
+
+    private record ServerFingerprint(String serverJar, String serverJarVersion, String aotFile, String assetsZip) {
+
+        String encode() {
+            return serverJar + "|" + serverJarVersion + "|" + aotFile + "|" + assetsZip;
+        }
+
+        static String decodeVersion(String encoded) {
+            String[] parts = encoded.split("\\|");
+            return parts.length > 1 ? parts[1] : "Unknown";
+        }
+    }
+}
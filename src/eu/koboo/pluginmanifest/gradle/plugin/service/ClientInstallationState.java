@@ -0,0 +1,77 @@
+package eu.koboo.pluginmanifest.gradle.plugin.service;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+
+// The persisted client installation facts in the Gradle user home.
+// Written by the client discovery and the ClientInstallationService.
+@UtilityClass
+public class ClientInstallationState {
+
+    public static final String STATE_FILE = "caches" + File.separator + "pluginmanifest" + File.separator + "client-installation.properties";
+    public static final String SEARCH_PATHS_KEY = "discovery.searchPaths";
+    public static final String CLIENT_DIRECTORY_KEY = "discovery.clientDirectory";
+    public static final String FINGERPRINT_KEY = "fingerprint.";
+    public static final String SOURCES_KEY = "sources.";
+    public static final String CHANGED_KEY = "changed.";
+
+    private static final Object LOCK = new Object();
+
+    public @NotNull File getStateFile(@NotNull File gradleUserHome) {
+        return new File(gradleUserHome, STATE_FILE);
+    }
+
+    public @NotNull Properties load(@NotNull File stateFile) {
+        Properties state = new Properties();
+        if (!stateFile.isFile()) {
+            return state;
+        }
+        try (InputStream inputStream = Files.newInputStream(stateFile.toPath())) {
+            state.load(inputStream);
+        } catch (IOException | IllegalArgumentException e) {
+            // Broken state, everything is discovered again.
+            state.clear();
+        }
+        return state;
+    }
+
+    // Merges the values into the current file, so writers of different keys don't drop each other's values.
+    // The lock file covers builds in other daemons, which share the Gradle user home,
+    // the monitor covers this JVM, because file locks are held by the whole process.
+    public void update(@NotNull File stateFile, @NotNull Map<String, String> values) {
+        synchronized (LOCK) {
+            File parentDirectory = stateFile.getParentFile();
+            if (!parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            Path lockFile = stateFile.toPath().resolveSibling(stateFile.getName() + ".lock");
+            try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                Properties state = load(stateFile);
+                state.putAll(values);
+                // Unique temp file, so a crashed writer never leaves a half written file behind.
+                Path tempFile = Files.createTempFile(parentDirectory.toPath(), stateFile.getName(), ".tmp");
+                try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                    state.store(outputStream, "pluginmanifest client installation");
+                }
+                Files.move(tempFile, stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                PluginLog.info("Can't write client installation state: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package eu.koboo.pluginmanifest.gradle.plugin.service;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JsonWriter;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.gradle.api.Project;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+import org.gradle.tooling.events.task.TaskFinishEvent;
+import org.gradle.tooling.events.task.TaskOperationResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+// Collects the wall time and allocation of the plugin's phases for every project.
+// Enabled with the gradle property "pluginmanifest.timings=true".
+public abstract class PluginTimingService implements BuildService<PluginTimingService.Parameters>,
+    OperationCompletionListener, AutoCloseable {
+
+    public static final String NAME = "pluginManifestTimings";
+    public static final String ENABLED_PROPERTY = "pluginmanifest.timings";
+    public static final String REPORT_DIRECTORY = "reports" + File.separator + "pluginmanifest";
+    private static final String REPORT_FILE = "timings.json";
+    private static final String ROLLUP_FILE = "timings-rollup.json";
+    private static final String PROJECTS_DIRECTORY = "projects";
+
+    // Tasks, which are recorded through task finish events.
+    private static final Set<String> TIMED_TASKS = Set.of("generateManifest", "runServer", "decompileServer", "pluginDoctor");
+    private static final long UNKNOWN = -1;
+
+    public interface Parameters extends BuildServiceParameters {
+
+        Property<Boolean> getEnabled();
+
+        // Reports of all projects are written below the root project's build directory,
+        // because the parameters are isolated once the service is created.
+        DirectoryProperty getReportDirectory();
+    }
+
+    private final Map<String, Queue<Timing>> projectTimings = new ConcurrentHashMap<>();
+    private final Set<String> recordedTaskPaths = ConcurrentHashMap.newKeySet();
+    // Project path and phase, the providers are read more than once, but only the first evaluation is recorded.
+    private final Set<String> measuredPhases = ConcurrentHashMap.newKeySet();
+    // Wall time and allocation of the nested phases of every running measurement on this thread,
+    // so i.e. "mainClassDetection" isn't counted again in "manifestBuild".
+    private final ThreadLocal<Deque<long[]>> runningMeasurements = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public static boolean isEnabled(Project project) {
+        return project.getProviders()
+            .gradleProperty(ENABLED_PROPERTY)
+            .map(Boolean::parseBoolean)
+            .getOrElse(false);
+    }
+
+    public static Provider<PluginTimingService> register(Project project) {
+        return project.getGradle().getSharedServices()
+            .registerIfAbsent(NAME, PluginTimingService.class, spec -> {
+                Parameters parameters = spec.getParameters();
+                parameters.getEnabled().set(isEnabled(project));
+                parameters.getReportDirectory().set(project.getRootProject().getLayout().getBuildDirectory().dir(REPORT_DIRECTORY));
+            });
+    }
+
+    public boolean isEnabled() {
+        return getParameters().getEnabled().get();
+    }
+
+    public <T> T measure(String projectPath, String phase, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        boolean firstEvaluation = measuredPhases.add(projectPath + ":" + phase);
+        Deque<long[]> running = runningMeasurements.get();
+        long[] nested = new long[2];
+        running.push(nested);
+        long allocatedBefore = currentThreadAllocatedBytes();
+        long startNanos = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            long wallTimeNanos = System.nanoTime() - startNanos;
+            long allocatedBytes = UNKNOWN;
+            if (allocatedBefore != UNKNOWN) {
+                allocatedBytes = currentThreadAllocatedBytes() - allocatedBefore;
+            }
+            running.pop();
+            long[] parent = running.peek();
+            if (parent != null) {
+                parent[0] += wallTimeNanos;
+                if (allocatedBytes != UNKNOWN) {
+                    parent[1] += allocatedBytes;
+                }
+            }
+            if (firstEvaluation) {
+                long ownAllocatedBytes = allocatedBytes == UNKNOWN ? UNKNOWN : allocatedBytes - nested[1];
+                record(projectPath, new Timing(phase, (wallTimeNanos - nested[0]) / 1_000_000.0, ownAllocatedBytes));
+            }
+        }
+    }
+
+    @Override
+    public void onFinish(FinishEvent event) {
+        if (!isEnabled() || !(event instanceof TaskFinishEvent taskEvent)) {
+            return;
+        }
+        String taskPath = taskEvent.getDescriptor().getTaskPath();
+        int separator = taskPath.lastIndexOf(':');
+        String taskName = taskPath.substring(separator + 1);
+        if (!TIMED_TASKS.contains(taskName) || !recordedTaskPaths.add(taskPath)) {
+            return;
+        }
+        String projectPath = separator <= 0 ? ":" : taskPath.substring(0, separator);
+        TaskOperationResult result = taskEvent.getResult();
+        long wallTimeMillis = result.getEndTime() - result.getStartTime();
+        // Tasks run (partly) in other processes, so there is no allocation to measure.
+        record(projectPath, new Timing("task:" + taskName, wallTimeMillis, UNKNOWN));
+    }
+
+    private void record(String projectPath, Timing timing) {
+        projectTimings.computeIfAbsent(projectPath, key -> new ConcurrentLinkedQueue<>()).add(timing);
+    }
+
+    private long currentThreadAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean allocationBean
+            && allocationBean.isThreadAllocatedMemorySupported()
+            && allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return allocationBean.getCurrentThreadAllocatedBytes();
+        }
+        return UNKNOWN;
+    }
+
+    @Override
+    public void close() {
+        if (!isEnabled() || projectTimings.isEmpty()) {
+            return;
+        }
+        String timestamp = Instant.now().toString();
+        Map<String, Map<String, Object>> totals = new TreeMap<>();
+        Map<String, Object> projects = new TreeMap<>();
+        for (Map.Entry<String, Queue<Timing>> entry : projectTimings.entrySet()) {
+            String projectPath = entry.getKey();
+            List<Map<String, Object>> timingList = new ArrayList<>();
+            for (Timing timing : entry.getValue()) {
+                timingList.add(timing.toMap());
+                Map<String, Object> total = totals.computeIfAbsent(timing.phase, key -> createTotal());
+                total.put("Count", (Integer) total.get("Count") + 1);
+                total.put("WallTimeMillis", (Double) total.get("WallTimeMillis") + timing.wallTimeMillis);
+                if (timing.allocatedBytes != UNKNOWN) {
+                    total.merge("AllocatedBytes", timing.allocatedBytes, (left, right) -> (Long) left + (Long) right);
+                }
+            }
+            projects.put(projectPath, timingList);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("Timestamp", timestamp);
+            report.put("Project", projectPath);
+            report.put("Timings", timingList);
+            writeReport(resolveReportFile(projectPath), report);
+        }
+
+        Map<String, Object> rollup = new LinkedHashMap<>();
+        rollup.put("Timestamp", timestamp);
+        rollup.put("Totals", totals);
+        rollup.put("Projects", projects);
+        writeReport(new File(getReportDirectory(), ROLLUP_FILE), rollup);
+    }
+
+    // ":" -> "timings.json", ":app:core" -> "projects/app/core/timings.json"
+    private File resolveReportFile(String projectPath) {
+        File reportDirectory = getReportDirectory();
+        if (!projectPath.equals(":")) {
+            reportDirectory = new File(reportDirectory, PROJECTS_DIRECTORY);
+            for (String segment : projectPath.substring(1).split(":")) {
+                reportDirectory = new File(reportDirectory, segment);
+            }
+        }
+        return new File(reportDirectory, REPORT_FILE);
+    }
+
+    private File getReportDirectory() {
+        return getParameters().getReportDirectory().getAsFile().get();
+    }
+
+    private Map<String, Object> createTotal() {
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("Count", 0);
+        total.put("WallTimeMillis", 0.0);
+        return total;
+    }
+
+    private void writeReport(File reportFile, Map<String, Object> report) {
+        try {
+            File parentDirectory = reportFile.getParentFile();
+            if (!parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            JsonWriter.writeFile(reportFile.toPath(), report);
+        } catch (IOException e) {
+            PluginLog.info("Can't write timing report: " + e.getMessage());
+        }
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class Timing {
+        String phase;
+        double wallTimeMillis;
+        long allocatedBytes;
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("Phase", phase);
+            map.put("WallTimeMillis", wallTimeMillis);
+            if (allocatedBytes != UNKNOWN) {
+                map.put("AllocatedBytes", allocatedBytes);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.benchmark.BenchmarkHistory;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.benchmark.StartupResult;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.instance.ServerInstanceGroup;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.ServerProcess;
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.UntrackedTask;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@UntrackedTask(because = "Measures the startup time of the server")
+public abstract class BenchmarkServerTask extends RunServerTask {
+
+    private static final String DEFAULT_SET = "default";
+    private static final long PROBE_INTERVAL_MILLIS = 20;
+
+    @Internal
+    public abstract Property<Integer> getIterations();
+
+    @Internal
+    public abstract Property<Integer> getWarmupIterations();
+
+    @Internal
+    public abstract MapProperty<String, List<String>> getJvmArgumentSets();
+
+    @Internal
+    public abstract Property<Boolean> getProbePort();
+
+    @Internal
+    public abstract RegularFileProperty getHistoryFile();
+
+    @Internal
+    public abstract Property<Double> getRegressionThresholdPercent();
+
+    @Internal
+    public abstract Property<Integer> getBaselineRuns();
+
+    @Internal
+    public abstract Property<String> getPluginVersion();
+
+    @Internal
+    public abstract DirectoryProperty getReportDirectory();
+
+    @Override
+    protected boolean launchServer(File serverJarFile, File runtimeDirectory,
+                                   List<String> jvmArguments, List<String> serverArguments) {
+        int iterations = getIterations().get();
+        int warmupIterations = getWarmupIterations().get();
+        if (iterations < 1 || warmupIterations < 0) {
+            throw new InvalidUserDataException("Can't benchmark with " + iterations + " iterations and " + warmupIterations + " warmup iterations");
+        }
+        Map<String, List<String>> jvmArgumentSets = new LinkedHashMap<>(getJvmArgumentSets().get());
+        if (jvmArgumentSets.isEmpty()) {
+            jvmArgumentSets.put(DEFAULT_SET, List.of());
+        }
+        Pattern readyPattern = Pattern.compile(getReadyPattern().get());
+        String bindAddress = getBindAddress().get();
+        int serverArgumentIndex = serverArguments.indexOf(ServerInstanceGroup.BIND_ARGUMENT);
+        if (serverArgumentIndex >= 0 && serverArgumentIndex + 1 < serverArguments.size()) {
+            bindAddress = serverArguments.get(serverArgumentIndex + 1);
+        }
+        boolean probePort = getProbePort().get();
+        String probeHost = ServerInstanceGroup.getBindHost(bindAddress);
+        int probePortNumber = ServerInstanceGroup.getBindPort(bindAddress);
+        File reportDirectory = getReportDirectory().getAsFile().get();
+
+        List<StartupResult> results = new ArrayList<>();
+        for (Map.Entry<String, List<String>> set : jvmArgumentSets.entrySet()) {
+            List<String> setJvmArguments = new ArrayList<>(jvmArguments);
+            setJvmArguments.addAll(set.getValue());
+            List<String> command = new ArrayList<>();
+            command.add(resolveJavaExecutable());
+            command.addAll(setJvmArguments);
+            command.add("-jar");
+            command.add(serverJarFile.getAbsolutePath());
+            command.addAll(serverArguments);
+
+            File setDirectory = new File(reportDirectory, set.getKey());
+            setDirectory.mkdirs();
+            List<Long> timesMillis = new ArrayList<>();
+            for (int run = 1; run <= warmupIterations + iterations; run++) {
+                boolean warmup = run <= warmupIterations;
+                File consoleFile = new File(setDirectory, (warmup ? "warmup-" + run : "run-" + (run - warmupIterations)) + ".log");
+                long readyMillis = measure(command, runtimeDirectory, consoleFile, readyPattern,
+                    probePort, probeHost, probePortNumber);
+                PluginLog.info("Benchmark \"" + set.getKey() + "\" " + (warmup ? "warmup " + run : "run " + (run - warmupIterations))
+                    + ": ready after " + readyMillis + "ms");
+                if (!warmup) {
+                    timesMillis.add(readyMillis);
+                }
+            }
+            results.add(new StartupResult(set.getKey(), set.getValue(), timesMillis));
+        }
+
+        report(results);
+        return true;
+    }
+
+    private long measure(List<String> command, File runtimeDirectory, File consoleFile, Pattern readyPattern,
+                         boolean probePort, String probeHost, int probePortNumber) {
+        if (probePort && isPortBound(probeHost, probePortNumber)) {
+            throw new InvalidUserDataException("Can't probe port " + probePortNumber + ", it's already in use");
+        }
+        long readyTimeoutNanos = TimeUnit.SECONDS.toNanos(getReadyTimeoutSeconds().get());
+        try (PrintStream console = new PrintStream(new FileOutputStream(consoleFile), true, StandardCharsets.UTF_8)) {
+            ServerProcess server = ServerProcess.start(command, runtimeDirectory, console, readyPattern);
+            try {
+                while (System.nanoTime() - server.getStartNanos() < readyTimeoutNanos) {
+                    long readyNanos = server.getReadyNanos();
+                    if (readyNanos < 0 && probePort && isPortBound(probeHost, probePortNumber)) {
+                        readyNanos = System.nanoTime() - server.getStartNanos();
+                    }
+                    if (readyNanos >= 0) {
+                        return TimeUnit.NANOSECONDS.toMillis(readyNanos);
+                    }
+                    if (!server.isAlive()) {
+                        throw new GradleException("Server exited with code " + server.exitValue()
+                            + " before it was ready, see " + consoleFile.getAbsolutePath());
+                    }
+                    Thread.sleep(PROBE_INTERVAL_MILLIS);
+                }
+                throw new GradleException("Server wasn't ready within " + getReadyTimeoutSeconds().get()
+                    + "s, see " + consoleFile.getAbsolutePath());
+            } finally {
+                server.stop(getStopTimeoutSeconds().get());
+            }
+        } catch (IOException e) {
+            throw new GradleException("Can't start server for benchmark: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Benchmark was interrupted", e);
+        }
+    }
+
+    // The server listens on udp. Binding the port ourselves would compete with the server for it,
+    // so a single byte is sent instead, which the server drops as invalid packet.
+    // The port is free, if the system answers with "port unreachable", otherwise the datagram is swallowed.
+    private static boolean isPortBound(String host, int port) {
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.connect(new InetSocketAddress(resolveProbeAddress(host), port));
+            socket.setSoTimeout((int) PROBE_INTERVAL_MILLIS);
+            socket.send(new DatagramPacket(new byte[1], 1));
+            socket.receive(new DatagramPacket(new byte[1], 1));
+            return true;
+        } catch (SocketTimeoutException e) {
+            return true;
+        } catch (IOException e) {
+            // PortUnreachableException, or the host can't be reached at all
+            return false;
+        }
+    }
+
+    // A server bound to all interfaces is reachable through the loopback interface.
+    private static InetAddress resolveProbeAddress(String host) throws IOException {
+        String address = host.startsWith("[") && host.endsWith("]") ? host.substring(1, host.length() - 1) : host;
+        if (address.isEmpty()) {
+            return InetAddress.getLoopbackAddress();
+        }
+        InetAddress inetAddress = InetAddress.getByName(address);
+        return inetAddress.isAnyLocalAddress() ? InetAddress.getLoopbackAddress() : inetAddress;
+    }
+
+    private void report(List<StartupResult> results) {
+        File historyFile = getHistoryFile().getAsFile().get();
+        double thresholdPercent = getRegressionThresholdPercent().get();
+        List<Map<String, Object>> history;
+        try {
+            history = BenchmarkHistory.read(historyFile);
+        } catch (IOException e) {
+            throw new GradleException("Can't read benchmark history " + historyFile.getAbsolutePath(), e);
+        }
+
+        PluginLog.info("");
+        PluginLog.info("Time to ready:");
+        PluginLog.print(String.format(Locale.ROOT, "  %-20s %8s %8s %8s %8s %10s %8s",
+            "Set", "Min", "P50", "P90", "Max", "Baseline", "Change"));
+        List<String> regressions = new ArrayList<>();
+        List<Map<String, Object>> entries = new ArrayList<>();
+        Instant timestamp = Instant.now();
+        for (StartupResult result : results) {
+            long baselineMillis = BenchmarkHistory.baselineMillis(history, result, getBaselineRuns().get());
+            String change = "-";
+            boolean regressed = false;
+            if (baselineMillis > 0) {
+                double changePercent = (result.getP50Millis() - baselineMillis) * 100.0 / baselineMillis;
+                change = String.format(Locale.ROOT, "%+.1f%%", changePercent);
+                if (changePercent > thresholdPercent) {
+                    regressed = true;
+                    regressions.add("\"" + result.getSet() + "\" P50 " + result.getP50Millis() + "ms vs baseline "
+                        + baselineMillis + "ms (" + change + ")");
+                }
+            }
+            PluginLog.print(String.format(Locale.ROOT, "  %-20s %6dms %6dms %6dms %6dms %10s %8s",
+                result.getSet(), result.getMinMillis(), result.getP50Millis(), result.getP90Millis(),
+                result.getMaxMillis(), baselineMillis > 0 ? baselineMillis + "ms" : "-", change));
+            // Regressed runs are kept for the record, but never become part of the baseline.
+            entries.add(result.toHistoryEntry(timestamp, getPluginVersion().getOrElse("unspecified"), regressed));
+        }
+
+        try {
+            BenchmarkHistory.append(historyFile, entries);
+        } catch (IOException e) {
+            throw new GradleException("Can't write benchmark history " + historyFile.getAbsolutePath(), e);
+        }
+        PluginLog.info("Appended results to " + historyFile.getAbsolutePath());
+
+        if (!regressions.isEmpty()) {
+            throw new GradleException("Startup time regressed by more than " + thresholdPercent + "%: "
+                + String.join(", ", regressions));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package eu.koboo.pluginmanifest.gradle.plugin.tasks;
 
+import eu.koboo.pluginmanifest.gradle.plugin.service.ClientInstallationService;
 import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
@@ -18,15 +19,22 @@ public abstract class DecompileServerTask extends JavaExec {
     private static final String VINEFLOWER_DOWNLOAD =
         "https://github.com/Vineflower/vineflower/releases/download/1.11.2/vineflower-1.11.2-slim.jar";
 
-    @InputFile
+    // The server fingerprint is the input, so the large jar doesn't need to be hashed.
+    @Internal
     public abstract RegularFileProperty getClientServerJarFile();
 
+    @Input
+    public abstract Property<String> getServerFingerprint();
+
     @Input
     public abstract Property<String> getClientSourcesJarPath();
 
     @Input
     public abstract Property<String> getVineflowerJarPath();
 
+    @Internal
+    public abstract Property<ClientInstallationService> getClientInstallationService();
+
     @TaskAction
     public void runTask() {
         PluginLog.info("Decompiling server sources...");
@@ -74,4 +82,10 @@ public abstract class DecompileServerTask extends JavaExec {
         setStandardOutput(System.out);
         setErrorOutput(System.err);
     }
+
+    // Called after the decompiler finished, so the sources can be detected as outdated, once the server changes.
+    public void markSourcesDecompiled() {
+        File serverJarFile = getClientServerJarFile().getAsFile().get();
+        getClientInstallationService().get().markSourcesDecompiled(serverJarFile.getParentFile().getParentFile());
+    }
 }
@@ -0,0 +1,51 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.detection.PluginClassIndex;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+@CacheableTask
+public abstract class DetectMainClassTask extends DefaultTask {
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getClassesDirectories();
+
+    @Classpath
+    public abstract ConfigurableFileCollection getCompileClasspath();
+
+    @OutputFile
+    public abstract RegularFileProperty getCandidatesFile();
+
+    @TaskAction
+    public void runTask() {
+        List<String> candidates;
+        try (PluginClassIndex index = new PluginClassIndex(getClassesDirectories().getFiles(), getCompileClasspath().getFiles())) {
+            candidates = index.findPluginClasses();
+        } catch (IOException e) {
+            throw new GradleException("Can't detect mainClass from class files: ", e);
+        }
+
+        File candidatesFile = getCandidatesFile().getAsFile().get();
+        try {
+            File parentDirectory = candidatesFile.getParentFile();
+            if (!parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            Files.write(candidatesFile.toPath(), candidates, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new GradleException("Can't write mainClass candidates: ", e);
+        }
+        PluginLog.info("Detected " + candidates.size() + " pluginMainClass candidate(s) in class files.");
+    }
+}
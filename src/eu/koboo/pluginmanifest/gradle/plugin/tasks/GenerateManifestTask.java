@@ -1,35 +1,67 @@
 package eu.koboo.pluginmanifest.gradle.plugin.tasks;
 
 import eu.koboo.pluginmanifest.gradle.plugin.PluginManifestPlugin;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ManifestValidation;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ValidationException;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVer;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVerIntervalSet;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVerRange;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JarManifestUtils;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JavaSourceUtils;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JsonWriter;
 import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
-import groovy.json.JsonOutput;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.file.Directory;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
-import org.gradle.api.tasks.Input;
-import org.gradle.api.tasks.OutputDirectory;
-import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.*;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+@CacheableTask
 public abstract class GenerateManifestTask extends DefaultTask {
 
-    @OutputDirectory
+    // Only the manifest.json is declared as output, the directory is a resource directory of the main source set.
+    @Internal
     public abstract DirectoryProperty getResourceDirectory();
 
+    @OutputFile
+    public Provider<RegularFile> getManifestFile() {
+        return getResourceDirectory().file(PluginManifestPlugin.MANIFEST);
+    }
+
     @Input
     public abstract MapProperty<String, Object> getManifestMap();
 
     @Input
     public abstract Property<Boolean> getDisableManifestGeneration();
 
+    @Optional
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getMainClassCandidatesFile();
+
+    // The HytaleServer.jar, we compile against, its version must match the serverVersion.
+    // Only its version is the input, so the large jar doesn't need to be hashed.
+    @Internal
+    public abstract RegularFileProperty getServerJarFile();
+
+    @Optional
+    @Input
+    public abstract Property<String> getServerJarVersion();
+
     @TaskAction
     public void runTask() throws IOException {
         if (getDisableManifestGeneration().get()) {
@@ -37,9 +69,10 @@ public abstract class GenerateManifestTask extends DefaultTask {
         }
 
         Map<String, Object> manifestMap = getManifestMap().get();
-        String manifestJson = JsonOutput.toJson(manifestMap);
-        manifestJson = JsonOutput.prettyPrint(manifestJson);
-
+        checkServerVersion(manifestMap);
+        if (!manifestMap.containsKey("Main") && getMainClassCandidatesFile().isPresent()) {
+            manifestMap = insertMainClass(manifestMap);
+        }
         Directory directory = getResourceDirectory().getOrNull();
         if (directory == null) {
             throw new InvalidUserDataException("Can't resolve resourceDirectory, because it can't be null!");
@@ -48,13 +81,78 @@ public abstract class GenerateManifestTask extends DefaultTask {
         if (!resourceDirectory.exists()) {
             resourceDirectory.mkdirs();
         }
-        File manifestFile = new File(resourceDirectory, PluginManifestPlugin.MANIFEST);
+        File manifestFile = getManifestFile().get().getAsFile();
 
-        Files.writeString(manifestFile.toPath(), manifestJson, StandardCharsets.UTF_8);
+        // An unchanged manifest.json keeps its mtime, so nothing downstream sees a new file.
+        byte[] manifestBytes = JsonWriter.toJson(manifestMap).getBytes(StandardCharsets.UTF_8);
+        if (isUnchanged(manifestFile, manifestBytes)) {
+            PluginLog.info("manifest.json is up to date:");
+            PluginLog.info(manifestFile.getAbsolutePath());
+            return;
+        }
+        Files.write(manifestFile.toPath(), manifestBytes);
 
         PluginLog.info("");
         PluginLog.info("Successfully generated manifest.json at:");
         PluginLog.info(manifestFile.getAbsolutePath());
         PluginLog.info("");
     }
-}
+
+    private boolean isUnchanged(File manifestFile, byte[] manifestBytes) throws IOException {
+        if (!manifestFile.isFile() || manifestFile.length() != manifestBytes.length) {
+            return false;
+        }
+        return Arrays.equals(Files.readAllBytes(manifestFile.toPath()), manifestBytes);
+    }
+
+    private void checkServerVersion(Map<String, Object> manifestMap) {
+        if (!getServerJarVersion().isPresent()) {
+            return;
+        }
+        String jarVersion = getServerJarVersion().get();
+        if (JarManifestUtils.isUnknown(jarVersion)) {
+            PluginLog.info("Can't check serverVersion, HytaleServer.jar has no version.");
+            return;
+        }
+        SemVer serverJarVersion;
+        try {
+            serverJarVersion = SemVer.parseString("HytaleServer.jar", jarVersion);
+        } catch (ValidationException e) {
+            PluginLog.info("Can't check serverVersion, " + e.getFormattedMessage());
+            return;
+        }
+
+        String serverVersion = (String) manifestMap.get("ServerVersion");
+        SemVerIntervalSet serverVersionRange;
+        try {
+            serverVersionRange = SemVerRange.compile("serverVersion", serverVersion);
+        } catch (ValidationException e) {
+            throw new InvalidUserDataException(e.getFormattedMessage());
+        }
+        if (!serverVersionRange.contains(serverJarVersion)) {
+            throw new InvalidUserDataException("serverVersion \"" + serverVersion + "\" doesn't match the version of HytaleServer.jar -> \"" + jarVersion + "\"");
+        }
+    }
+
+    private Map<String, Object> insertMainClass(Map<String, Object> manifestMap) {
+        File candidatesFile = getMainClassCandidatesFile().getAsFile().get();
+        List<String> candidates = JavaSourceUtils.readMainClassCandidates(candidatesFile);
+        String mainClassPath = JavaSourceUtils.selectMainClass(candidates);
+        try {
+            ManifestValidation.validateFullyQualifiedClass("pluginMainClass", mainClassPath);
+        } catch (ValidationException e) {
+            throw new InvalidUserDataException(e.getFormattedMessage());
+        }
+
+        // Keep the key order of the manifest, "Main" follows "ServerVersion".
+        Map<String, Object> completeMap = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : manifestMap.entrySet()) {
+            completeMap.put(entry.getKey(), entry.getValue());
+            if (entry.getKey().equals("ServerVersion")) {
+                completeMap.put("Main", mainClassPath);
+            }
+        }
+        completeMap.putIfAbsent("Main", mainClassPath);
+        return completeMap;
+    }
+}
\ No newline at end of file
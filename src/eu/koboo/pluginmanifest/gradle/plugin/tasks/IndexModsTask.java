@@ -0,0 +1,88 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.IndexedPlugin;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.ModsIndex;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JsonWriter;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.UntrackedTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@UntrackedTask(because = "The mods index tracks the size and mtime of every jar itself")
+public abstract class IndexModsTask extends DefaultTask {
+
+    @Internal
+    public abstract ConfigurableFileCollection getPluginJars();
+
+    @Internal
+    public abstract RegularFileProperty getIndexCacheFile();
+
+    @Internal
+    public abstract Property<Integer> getParallelism();
+
+    @OutputFile
+    public abstract RegularFileProperty getIndexFile();
+
+    @TaskAction
+    public void runTask() {
+        long startNanos = System.nanoTime();
+        ModsIndex index = ModsIndex.build(
+            getPluginJars().getFiles(),
+            getIndexCacheFile().getAsFile().get(),
+            getParallelism().get()
+        );
+        long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        List<Map<String, Object>> plugins = new ArrayList<>();
+        for (IndexedPlugin plugin : index.getPlugins()) {
+            Map<String, Object> pluginEntry = new LinkedHashMap<>();
+            pluginEntry.put("File", plugin.getFile().getAbsolutePath());
+            pluginEntry.put("Size", plugin.getSize());
+            pluginEntry.put("LastModified", plugin.getLastModified());
+            if (plugin.getError() != null) {
+                pluginEntry.put("Error", plugin.getError());
+            } else if (plugin.getManifest() == null) {
+                pluginEntry.put("Error", "No manifest.json");
+            } else {
+                Map<?, ?> manifest = plugin.getManifest();
+                pluginEntry.put("Group", plugin.getGroup());
+                pluginEntry.put("Name", plugin.getName());
+                pluginEntry.put("Version", plugin.getVersion());
+                pluginEntry.put("Main", plugin.getMain());
+                for (String key : List.of("Dependencies", "OptionalDependencies", "LoadBefore")) {
+                    Object dependencies = manifest.get(key);
+                    if (dependencies != null) {
+                        pluginEntry.put(key, dependencies);
+                    }
+                }
+            }
+            plugins.add(pluginEntry);
+        }
+
+        File indexFile = getIndexFile().getAsFile().get();
+        try {
+            File parentDirectory = indexFile.getParentFile();
+            if (!parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            JsonWriter.writeFile(indexFile.toPath(), plugins);
+        } catch (IOException e) {
+            throw new GradleException("Can't write mods index: ", e);
+        }
+        PluginLog.info("Indexed " + plugins.size() + " plugin jar(s) in " + durationMillis + "ms:");
+        PluginLog.info(indexFile.getAbsolutePath());
+    }
+}
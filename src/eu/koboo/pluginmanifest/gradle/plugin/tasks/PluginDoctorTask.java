@@ -0,0 +1,287 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.service.ClientInstallationService;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JarManifestUtils;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JsonWriter;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.UntrackedTask;
+import org.gradle.api.tasks.options.Option;
+import org.gradle.api.tasks.options.OptionValues;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@UntrackedTask(because = "Prints the current state of the client installation and runtime")
+public abstract class PluginDoctorTask extends DefaultTask {
+
+    private static final String FOUND = "[✓] Found";
+    private static final String NOT_FOUND = "[ ] Not found";
+    private static final String FORMAT_TEXT = "text";
+    private static final String FORMAT_JSON = "json";
+
+    @Internal
+    public abstract Property<String> getProjectName();
+
+    @Internal
+    public abstract Property<String> getClientInstallDirectory();
+
+    @Internal
+    public abstract Property<String> getPatchline();
+
+    @Internal
+    public abstract RegularFileProperty getClientServerJarFile();
+
+    @Internal
+    public abstract RegularFileProperty getClientAOTFile();
+
+    @Internal
+    public abstract RegularFileProperty getClientSourcesFile();
+
+    @Internal
+    public abstract RegularFileProperty getClientAssetsFile();
+
+    @Internal
+    public abstract Property<String> getRuntimeDirectory();
+
+    @Internal
+    public abstract Property<String> getArchiveTaskName();
+
+    @Internal
+    public abstract RegularFileProperty getArchiveFile();
+
+    @Internal
+    public abstract MapProperty<String, Object> getManifestMap();
+
+    @Internal
+    public abstract Property<ClientInstallationService> getClientInstallationService();
+
+    @Internal
+    public abstract Property<Boolean> getDisableManifestGeneration();
+
+    @Internal
+    @Option(option = "format", description = "Output format of the doctor results (text or json).")
+    public abstract Property<String> getOutputFormat();
+
+    @OutputFile
+    public abstract RegularFileProperty getJsonReportFile();
+
+    @OptionValues("format")
+    public List<String> getOutputFormats() {
+        return List.of(FORMAT_TEXT, FORMAT_JSON);
+    }
+
+    @TaskAction
+    public void runTask() {
+        String outputFormat = getOutputFormat().getOrElse(FORMAT_TEXT).toLowerCase(Locale.ROOT);
+        if (!outputFormat.equals(FORMAT_TEXT) && !outputFormat.equals(FORMAT_JSON)) {
+            throw new InvalidUserDataException("Unknown doctor format \"" + outputFormat + "\", use text or json.");
+        }
+
+        File clientServerJarFile = fileOrNull(getClientServerJarFile().getOrNull());
+        File clientAOTFile = fileOrNull(getClientAOTFile().getOrNull());
+        File clientSourcesFile = fileOrNull(getClientSourcesFile().getOrNull());
+        File clientAssetsFile = fileOrNull(getClientAssetsFile().getOrNull());
+
+        String runtimeDirectoryPath = getRuntimeDirectory().getOrNull();
+        File runtimeDirectory = runtimeDirectoryPath == null ? null : new File(runtimeDirectoryPath);
+        File runtimeServerJar = runtimeDirectory == null ? null : new File(runtimeDirectory, "HytaleServer.jar");
+
+        ClientInstallationService clientInstallation = getClientInstallationService().get();
+        Map<String, Object> report = new LinkedHashMap<>();
+        // The probes don't depend on each other, so they run concurrently.
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<String> clientVersion = CompletableFuture.supplyAsync(() -> clientInstallation.getJarVersion(clientServerJarFile), executor);
+            CompletableFuture<Boolean> serverJarExists = CompletableFuture.supplyAsync(() -> isFile(clientServerJarFile), executor);
+            CompletableFuture<Boolean> aotExists = CompletableFuture.supplyAsync(() -> isFile(clientAOTFile), executor);
+            CompletableFuture<Boolean> sourcesExists = CompletableFuture.supplyAsync(() -> isFile(clientSourcesFile), executor);
+            CompletableFuture<Boolean> assetsExists = CompletableFuture.supplyAsync(() -> isFile(clientAssetsFile), executor);
+            CompletableFuture<Boolean> runtimeExists = CompletableFuture.supplyAsync(() -> runtimeDirectory != null && runtimeDirectory.isDirectory(), executor);
+            CompletableFuture<Boolean> runtimeJarExists = CompletableFuture.supplyAsync(() -> isFile(runtimeServerJar), executor);
+            Map<String, Object> manifest = resolveManifest();
+
+            Map<String, Object> client = new LinkedHashMap<>();
+            client.put("Path", getClientInstallDirectory().getOrElse("Not found"));
+            client.put("Patchline", getPatchline().getOrElse("Unknown"));
+            client.put("ServerVersion", clientVersion.join());
+            client.put("HytaleServer.jar", serverJarExists.join());
+            client.put("HytaleServer.aot", aotExists.join());
+            client.put("HytaleServer-sources.jar", sourcesExists.join());
+            // "install/PATCHLINE/package/game/latest/Server/HytaleServer.jar"
+            File latestDirectory = clientServerJarFile == null ? null : clientServerJarFile.getParentFile().getParentFile();
+            boolean serverJarFound = serverJarExists.join();
+            // The report file is unique per project, also across different builds sharing the Gradle user home.
+            String consumer = "pluginDoctor:" + getJsonReportFile().getAsFile().get().getAbsolutePath();
+            client.put("ServerChanged", serverJarFound && clientInstallation.hasServerChanged(latestDirectory, consumer));
+            client.put("SourcesOutdated", serverJarFound && sourcesExists.join() && clientInstallation.areSourcesOutdated(latestDirectory));
+            client.put("Assets.zip", assetsExists.join());
+            report.put("ClientInstallation", client);
+
+            report.put("Manifest", manifest);
+
+            Map<String, Object> archive = new LinkedHashMap<>();
+            File archiveFile = fileOrNull(getArchiveFile().getOrNull());
+            archive.put("Task", getArchiveTaskName().getOrElse("Unknown"));
+            archive.put("Name", archiveFile == null ? "Unknown" : archiveFile.getName());
+            archive.put("Path", archiveFile == null ? "Unknown" : archiveFile.getAbsolutePath());
+            report.put("Archive", archive);
+
+            Map<String, Object> runtime = new LinkedHashMap<>();
+            String runtimeText = "Not configured";
+            String serverJarText = "Not configured";
+            File serverJarFile = null;
+            if (runtimeDirectory != null) {
+                runtimeText = runtimeDirectory.getAbsolutePath();
+                if (runtimeJarExists.join()) {
+                    serverJarFile = runtimeServerJar;
+                    serverJarText = "From runtimeDirectory";
+                } else {
+                    serverJarFile = clientServerJarFile;
+                    serverJarText = "From client installation";
+                }
+                if (!runtimeExists.join()) {
+                    runtimeText += " (Not created yet)";
+                }
+            }
+            // Only open the runtime jar, if it's not the client jar, we already read.
+            String runtimeServerVersion = serverJarFile == clientServerJarFile
+                ? clientVersion.join()
+                : clientInstallation.getJarVersion(serverJarFile);
+            String clientServerVersion = clientVersion.join();
+            String matchesVersion = "NO";
+            if (!JarManifestUtils.isUnknown(clientServerVersion) && !JarManifestUtils.isUnknown(runtimeServerVersion)) {
+                if (clientServerVersion.equals(runtimeServerVersion)) {
+                    matchesVersion = "YES";
+                }
+            } else {
+                matchesVersion = "Both unknown";
+            }
+            runtime.put("Directory", runtimeText);
+            runtime.put("Executable", serverJarFile != null && isFile(serverJarFile) ? "YES" : "NO");
+            runtime.put("ServerJar", serverJarText);
+            runtime.put("ServerVersion", runtimeServerVersion);
+            runtime.put("MatchesClientVersion", matchesVersion);
+            report.put("Runtime", runtime);
+        }
+
+        if (outputFormat.equals(FORMAT_JSON)) {
+            writeJson(report);
+        } else {
+            printText(report);
+        }
+    }
+
+    private Map<String, Object> resolveManifest() {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        if (getDisableManifestGeneration().getOrElse(false)) {
+            manifest.put("Disabled", true);
+            return manifest;
+        }
+        try {
+            manifest.putAll(getManifestMap().get());
+        } catch (InvalidUserDataException e) {
+            manifest.put("Error", e.getMessage());
+        }
+        return manifest;
+    }
+
+    private void writeJson(Map<String, Object> report) {
+        String reportJson = JsonWriter.toJson(report);
+        File reportFile = getJsonReportFile().getAsFile().get();
+        try {
+            File parentDirectory = reportFile.getParentFile();
+            if (!parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            Files.writeString(reportFile.toPath(), reportJson, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new GradleException("Can't write doctor report: ", e);
+        }
+        PluginLog.print(reportJson);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printText(Map<String, Object> report) {
+        Map<String, Object> client = (Map<String, Object>) report.get("ClientInstallation");
+        Map<String, Object> manifest = (Map<String, Object>) report.get("Manifest");
+        Map<String, Object> archive = (Map<String, Object>) report.get("Archive");
+        Map<String, Object> runtime = (Map<String, Object>) report.get("Runtime");
+
+        PluginLog.info("PluginManifest doctor results for \"" + getProjectName().get() + "\":");
+        PluginLog.print("========= Client Installation ========");
+        PluginLog.print("");
+        PluginLog.print("                      Path > " + client.get("Path"));
+        PluginLog.print("                 Patchline > " + client.get("Patchline"));
+        String serverVersionText = String.valueOf(client.get("ServerVersion"));
+        if (Boolean.TRUE.equals(client.get("ServerChanged"))) {
+            serverVersionText += " (Changed since the last build)";
+        }
+        PluginLog.print("            Server-Version > " + serverVersionText);
+        PluginLog.print("        'HytaleServer.jar' > " + foundText(client.get("HytaleServer.jar")));
+        PluginLog.print("        'HytaleServer.aot' > " + foundText(client.get("HytaleServer.aot")));
+        String sourcesText = foundText(client.get("HytaleServer-sources.jar"));
+        if (Boolean.TRUE.equals(client.get("SourcesOutdated"))) {
+            sourcesText += " (Outdated, run decompileServer)";
+        }
+        PluginLog.print("'HytaleServer-sources.jar' > " + sourcesText);
+        PluginLog.print("              'Assets.zip' > " + foundText(client.get("Assets.zip")));
+        PluginLog.print("");
+        PluginLog.print("============== Manifest ==============");
+        if (manifest.containsKey("Disabled")) {
+            PluginLog.print("");
+            PluginLog.print("Manifest generation is disabled.");
+            PluginLog.print("");
+        } else if (manifest.containsKey("Error")) {
+            PluginLog.print("");
+            PluginLog.print("Manifest is invalid: " + manifest.get("Error"));
+            PluginLog.print("");
+        } else {
+            PluginLog.print(JsonWriter.toJson(manifest));
+        }
+        PluginLog.print("============== JAR file ==============");
+        PluginLog.print("");
+        PluginLog.print(" JAR file build task > \"" + archive.get("Task") + "\"");
+        PluginLog.print(" JAR file build name > " + archive.get("Name"));
+        PluginLog.print(" JAR file build path > " + archive.get("Path"));
+        PluginLog.print("");
+        PluginLog.print("=============== Runtime ==============");
+        PluginLog.print("");
+        PluginLog.print("  Server-Runtime-Directory > " + runtime.get("Directory"));
+        PluginLog.print("    Is runtime executable? > " + runtime.get("Executable"));
+        PluginLog.print("   Which 'HytaleServer.jar'> " + runtime.get("ServerJar"));
+        PluginLog.print("            Server-Version > " + runtime.get("ServerVersion"));
+        PluginLog.print("   Version matches client? > " + runtime.get("MatchesClientVersion"));
+        PluginLog.print("");
+        PluginLog.print("======================================");
+    }
+
+    private String foundText(Object exists) {
+        return Boolean.TRUE.equals(exists) ? FOUND : NOT_FOUND;
+    }
+
+    private boolean isFile(File file) {
+        return file != null && file.isFile();
+    }
+
+    private File fileOrNull(RegularFile regularFile) {
+        return regularFile == null ? null : regularFile.getAsFile();
+    }
+}
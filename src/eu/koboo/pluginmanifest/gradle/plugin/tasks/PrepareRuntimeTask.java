@@ -0,0 +1,83 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.RuntimeSync;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@UntrackedTask(because = "The runtime directory is written by the server as well, unchanged files are skipped by hash")
+public abstract class PrepareRuntimeTask extends DefaultTask {
+
+    @InputFile
+    public abstract RegularFileProperty getArchiveFile();
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.NAME_ONLY)
+    public abstract ConfigurableFileCollection getRuntimePlugins();
+
+    @Optional
+    @InputFile
+    public abstract RegularFileProperty getClientServerJarFile();
+
+    @Internal
+    public abstract DirectoryProperty getRuntimeDirectory();
+
+    @Input
+    public abstract Property<Boolean> getCopyPluginToRuntime();
+
+    @TaskAction
+    public void runTask() {
+        File runtimeDirectory = getRuntimeDirectory().getAsFile().get();
+        File modsDirectory = new File(runtimeDirectory, "mods");
+        if (!modsDirectory.exists()) {
+            modsDirectory.mkdirs();
+        }
+
+        File pluginArchiveFile = getArchiveFile().getAsFile().get();
+        Map<String, File> modsFiles = new LinkedHashMap<>();
+        for (File runtimePlugin : getRuntimePlugins().getFiles()) {
+            modsFiles.put(runtimePlugin.getName(), runtimePlugin);
+        }
+        if (RuntimeSync.requiresModsCopy(pluginArchiveFile, getCopyPluginToRuntime().get())) {
+            PluginLog.info("Syncing plugin into runtime \"mods/\" directory!");
+            modsFiles.put(pluginArchiveFile.getName(), pluginArchiveFile);
+        } else {
+            // "runServer" includes "build/libs/" with "--mods", so an older copy would be loaded twice.
+            File modsArchiveFile = new File(modsDirectory, pluginArchiveFile.getName());
+            if (modsArchiveFile.exists() && !modsFiles.containsKey(modsArchiveFile.getName())) {
+                modsArchiveFile.delete();
+                PluginLog.info("Deleted existing plugin from runtime \"mods/\" directory!");
+            }
+        }
+
+        RuntimeSync sync = RuntimeSync.load(runtimeDirectory);
+        try {
+            sync.syncDirectory(modsFiles, modsDirectory);
+
+            File clientServerJarFile = getClientServerJarFile().getAsFile().getOrNull();
+            File runtimeServerJar = new File(runtimeDirectory, "HytaleServer.jar");
+            if (clientServerJarFile != null) {
+                if (!sync.syncFile(clientServerJarFile, runtimeServerJar, false, true)) {
+                    PluginLog.info("Keeping the HytaleServer.jar override of the runtime directory.");
+                }
+            } else if (sync.removeFile(runtimeServerJar)) {
+                // "runServer" prefers any HytaleServer.jar of the runtime directory, so the linked one has to go.
+                PluginLog.info("Deleted the linked HytaleServer.jar, because \"linkServerJar\" is disabled.");
+            }
+            sync.save();
+        } catch (IOException e) {
+            throw new GradleException("Can't prepare runtime directory: " + e.getMessage(), e);
+        }
+        PluginLog.info("Prepared runtime directory: " + sync.getSummary());
+    }
+}
@@ -0,0 +1,148 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks;
+
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.dependency.DependencyProblem;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.dependency.DependencyResolution;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.dependency.PluginDependencyResolver;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.dependency.PluginDescriptor;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.IndexedPlugin;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.ModsIndex;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JsonWriter;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+import org.gradle.api.tasks.options.Option;
+import org.gradle.work.DisableCachingByDefault;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@DisableCachingByDefault(because = "Reads the plugins of the runtime directory")
+public abstract class ResolvePluginDependenciesTask extends DefaultTask {
+
+    private static final String PROJECT_SOURCE = "project";
+
+    @InputFiles
+    @PathSensitive(PathSensitivity.NAME_ONLY)
+    public abstract ConfigurableFileCollection getPluginJars();
+
+    @Optional
+    @Input
+    public abstract MapProperty<String, Object> getManifestMap();
+
+    @Internal
+    public abstract RegularFileProperty getIndexCacheFile();
+
+    @Internal
+    public abstract Property<Integer> getParallelism();
+
+    @Input
+    @Option(option = "ignore-problems", description = "Reports the dependency problems without failing the build.")
+    public abstract Property<Boolean> getIgnoreProblems();
+
+    @OutputFile
+    public abstract RegularFileProperty getLockFile();
+
+    @TaskAction
+    public void runTask() {
+        List<PluginDescriptor> descriptors = new ArrayList<>();
+        List<DependencyProblem> readProblems = new ArrayList<>();
+
+        // Our own plugin comes first, so it wins over an older copy in "mods/".
+        String projectPluginId = null;
+        Map<String, Object> manifestMap = getManifestMap().getOrNull();
+        if (manifestMap != null && !manifestMap.isEmpty()) {
+            PluginDescriptor projectPlugin = PluginDescriptor.fromManifest(manifestMap, PROJECT_SOURCE);
+            if (projectPlugin != null) {
+                projectPluginId = projectPlugin.getId();
+                descriptors.add(projectPlugin);
+            }
+        }
+
+        ModsIndex index = ModsIndex.build(
+            getPluginJars().getFiles(),
+            getIndexCacheFile().getAsFile().get(),
+            getParallelism().get()
+        );
+        for (IndexedPlugin plugin : index.getPlugins()) {
+            String jarName = plugin.getFile().getName();
+            if (plugin.getError() != null) {
+                readProblems.add(new DependencyProblem(DependencyProblem.Type.INVALID_MANIFEST,
+                    jarName + " can't be read: " + plugin.getError()));
+                continue;
+            }
+            if (plugin.getManifest() == null) {
+                readProblems.add(new DependencyProblem(DependencyProblem.Type.INVALID_MANIFEST,
+                    jarName + " has no manifest.json"));
+                continue;
+            }
+            PluginDescriptor descriptor = plugin.toDescriptor();
+            if (descriptor == null) {
+                readProblems.add(new DependencyProblem(DependencyProblem.Type.INVALID_MANIFEST,
+                    jarName + " has no \"Group\" or \"Name\" in its manifest.json"));
+                continue;
+            }
+            if (descriptor.getId().equals(projectPluginId)) {
+                // A copy of our own plugin, put there by "runServer"
+                continue;
+            }
+            descriptors.add(descriptor);
+        }
+
+        DependencyResolution resolution = PluginDependencyResolver.resolve(descriptors);
+        List<DependencyProblem> problems = new ArrayList<>(readProblems);
+        problems.addAll(resolution.getProblems());
+
+        writeLockFile(resolution);
+
+        PluginLog.info("Resolved " + resolution.getLoadOrder().size() + " of " + descriptors.size() + " plugins, load order:");
+        int position = 1;
+        for (PluginDescriptor plugin : resolution.getLoadOrder()) {
+            PluginLog.print("  " + position++ + ". " + plugin.getId() + " " + plugin.getVersion() + " (" + plugin.getSource() + ")");
+        }
+        if (problems.isEmpty()) {
+            PluginLog.info("No dependency problems found.");
+            return;
+        }
+        PluginLog.info("Found " + problems.size() + " dependency problem(s):");
+        for (DependencyProblem problem : problems) {
+            PluginLog.print("  - " + problem);
+        }
+        if (!getIgnoreProblems().getOrElse(false)) {
+            throw new InvalidUserDataException("Found " + problems.size() + " dependency problem(s), see the list above.");
+        }
+    }
+
+    private void writeLockFile(DependencyResolution resolution) {
+        List<Map<String, Object>> plugins = new ArrayList<>();
+        for (PluginDescriptor plugin : resolution.getLoadOrder()) {
+            Map<String, Object> lockEntry = new LinkedHashMap<>();
+            lockEntry.put("Id", plugin.getId());
+            lockEntry.put("Version", plugin.getVersion());
+            lockEntry.put("Source", plugin.getSource());
+            plugins.add(lockEntry);
+        }
+        Map<String, Object> lock = new LinkedHashMap<>();
+        lock.put("Plugins", plugins);
+
+        File lockFile = getLockFile().getAsFile().get();
+        try {
+            File parentDirectory = lockFile.getParentFile();
+            if (!parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            JsonWriter.writeFile(lockFile.toPath(), lock);
+        } catch (IOException e) {
+            throw new GradleException("Can't write plugin lock file: ", e);
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package eu.koboo.pluginmanifest.gradle.plugin.tasks;
 
-import eu.koboo.pluginmanifest.gradle.plugin.utils.FileUtils;
+import eu.koboo.pluginmanifest.gradle.plugin.extension.LogRetention;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.aot.AOTCacheKey;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.aot.ServerAOTCache;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.instance.InstanceTemplate;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.instance.ServerInstanceGroup;
 import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.RuntimeLogs;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.RuntimeSync;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.ServerProcess;
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.*;
+import org.gradle.api.tasks.options.Option;
 import org.gradle.work.DisableCachingByDefault;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
 
 @DisableCachingByDefault(because = "Starts the configured hytale server")
 public abstract class RunServerTask extends JavaExec {
@@ -39,15 +56,59 @@ public abstract class RunServerTask extends JavaExec {
     @Input
     public abstract Property<Boolean> getDeleteLogsOnStart();
 
+    @Internal
+    public abstract Property<LogRetention> getLogRetention();
+
+    @Internal
+    public abstract Property<Integer> getMaxArchivedLogRuns();
+
+    @Internal
+    public abstract Property<Long> getMaxArchivedLogMegabytes();
+
     @Input
     public abstract Property<Boolean> getAllowOp();
 
+    @Input
+    public abstract Property<String> getBindAddress();
+
+    @Internal
+    @Option(option = "instances", description = "Runs the given amount of server instances side by side.")
+    public abstract Property<String> getInstances();
+
     @Input
     public abstract ListProperty<String> getUserJvmArguments();
 
     @Input
     public abstract ListProperty<String> getUserServerArguments();
 
+    @Internal
+    @Option(option = "watch", description = "Restarts the server, whenever the plugin archive was rebuilt.")
+    public abstract Property<Boolean> getWatch();
+
+    // Additional files, which aren't packed into the archive. The resources are part of the archive,
+    // so watching them would restart the server on the old archive first.
+    @Internal
+    public abstract ConfigurableFileCollection getWatchFiles();
+
+    @Internal
+    public abstract Property<Long> getWatchDebounceMillis();
+
+    @Internal
+    public abstract Property<Long> getStopTimeoutSeconds();
+
+    @Internal
+    @Option(option = "train-aot", description = "Records a project AOT cache, which includes the plugin, before starting the server.")
+    public abstract Property<Boolean> getTrainAOT();
+
+    @Internal
+    public abstract Property<Boolean> getRetrainAOTAutomatically();
+
+    @Internal
+    public abstract Property<String> getReadyPattern();
+
+    @Internal
+    public abstract Property<Long> getReadyTimeoutSeconds();
+
     @TaskAction
     public void runTask() {
         PluginLog.info("Building start command...");
@@ -65,23 +126,13 @@ public abstract class RunServerTask extends JavaExec {
             PluginLog.info("Using server jar from runtime directory");
         }
 
-        File logsDirectory = new File(runtimeDirectory, "logs");
-        if (logsDirectory.exists()) {
-            try {
-                FileUtils.deleteRecursively(logsDirectory.toPath());
-            } catch (IOException e) {
-                PluginLog.info("Can not delete runtime logs directory: " + e.getMessage());
-            }
+        if (getDeleteLogsOnStart().get()) {
+            RuntimeLogs.cleanUp(runtimeDirectory, getLogRetention().get(),
+                getMaxArchivedLogRuns().get(), getMaxArchivedLogMegabytes().get() * 1024 * 1024);
         }
 
         List<String> taskJvmArguments = new ArrayList<>();
 
-        // Add optional aot file for faster startup
-        File serverAOTFile = getClientAOTFile().getAsFile().get();
-        if (serverAOTFile.exists()) {
-            taskJvmArguments.add("-XX:AOTCache=" + serverAOTFile.getAbsolutePath());
-        }
-
         // Disable warnings
         taskJvmArguments.add("--enable-native-access=ALL-UNNAMED");
 
@@ -110,49 +161,22 @@ public abstract class RunServerTask extends JavaExec {
         taskServerArguments.add("--assets");
         taskServerArguments.add(serverAssetsFile.getAbsolutePath());
 
-        // Adding plugin by copying or including build directory.
+        // Adding plugin by including build directory, "prepareRuntime" synced it into "mods/" otherwise.
         File pluginArchiveFile = getArchiveFile().getAsFile().getOrNull();
         if (pluginArchiveFile == null || !pluginArchiveFile.exists()) {
             throw new StopExecutionException("Archive file doesn't exist!");
         }
-        File modsDirectory = new File(runtimeDirectory, "mods");
-        if (!modsDirectory.exists()) {
-            modsDirectory.mkdirs();
-        }
-        File modsArchiveFile = new File(modsDirectory, pluginArchiveFile.getName());
-        boolean copyPluginToRuntimeModsFolder = getCopyPluginToRuntime().get();
-
-        // Check if there are more than 1 jar file inside "build/libs/"
-        File buildLibsDirectory = pluginArchiveFile.getParentFile();
-        File[] archiveFiles = buildLibsDirectory.listFiles();
-        if (archiveFiles != null && archiveFiles.length > 1) {
-            long archiveFileAmount = Arrays.stream(archiveFiles)
-                .map(File::getName)
-                .filter(name -> name.endsWith(".jar") || name.endsWith(".zip"))
-                .count();
-            PluginLog.info("Found " + archiveFileAmount + " jar files inside build directory..");
-            copyPluginToRuntimeModsFolder = archiveFileAmount > 1;
-            if (copyPluginToRuntimeModsFolder) {
-                PluginLog.info("Detected more than one jar file in build directory!");
-            }
-        }
-
+        File modsArchiveFile = new File(new File(runtimeDirectory, "mods"), pluginArchiveFile.getName());
+        // The watched archive is rewritten in place by the next build, while the server still reads it.
+        // So the watch mode always runs a copy, which is only swapped once the server stopped.
+        boolean watch = getWatch().getOrElse(false);
+        boolean copyPluginToRuntimeModsFolder = watch || RuntimeSync.requiresModsCopy(pluginArchiveFile, getCopyPluginToRuntime().get());
         if (!copyPluginToRuntimeModsFolder) {
             PluginLog.info("Using \"--mods\" as argument to include build directory as mods!");
-            if (modsArchiveFile.exists()) {
-                modsArchiveFile.delete();
-                PluginLog.info("Deleted existing plugin from runtime \"mods/\" directory!");
-            }
-
             taskServerArguments.add("--mods");
-            taskServerArguments.add(buildLibsDirectory.getAbsolutePath());
+            taskServerArguments.add(pluginArchiveFile.getParentFile().getAbsolutePath());
         } else {
-            PluginLog.info("Copying plugin into runtime \"mods/\" directory!");
-            try {
-                FileUtils.copyFileTo(pluginArchiveFile, modsArchiveFile);
-            } catch (IOException e) {
-                throw new StopExecutionException("Can't copy plugin archive into runtime: " + e.getMessage());
-            }
+            PluginLog.info("Using plugin from runtime \"mods/\" directory!");
         }
 
         // Include users server arguments
@@ -161,6 +185,25 @@ public abstract class RunServerTask extends JavaExec {
             taskServerArguments.addAll(userServerArguments);
         }
 
+        // Adding bind address, every instance gets its own port otherwise.
+        int instances = parseInstances(getInstances().getOrElse("1"));
+        boolean hasUserBindAddress = taskServerArguments.contains(ServerInstanceGroup.BIND_ARGUMENT);
+        if (instances > 1 && hasUserBindAddress) {
+            throw new InvalidUserDataException("Can't run multiple instances with \"--bind\" in serverArguments, set bindAddress instead.");
+        }
+        if (instances == 1 && !hasUserBindAddress) {
+            taskServerArguments.add(ServerInstanceGroup.BIND_ARGUMENT);
+            taskServerArguments.add(getBindAddress().get());
+        }
+
+        // Add optional aot file for faster startup, the project's own cache wins over the client's.
+        File serverAOTFile = getClientAOTFile().getAsFile().get();
+        String aotCacheFile = resolveAOTCache(serverJarFile, pluginArchiveFile, runtimeDirectory, serverAOTFile,
+            taskJvmArguments, taskServerArguments);
+        if (aotCacheFile != null) {
+            taskJvmArguments.add(0, "-XX:AOTCache=" + aotCacheFile);
+        }
+
         String jvmArgumentsString = String.join(" ", taskJvmArguments);
         String argumentsString = String.join(" ", taskServerArguments);
         String serverJarFilePath = serverJarFile.getAbsolutePath();
@@ -178,6 +221,26 @@ public abstract class RunServerTask extends JavaExec {
         PluginLog.info(startCommand);
         PluginLog.info("");
 
+        if (launchServer(serverJarFile, runtimeDirectory, taskJvmArguments, taskServerArguments)) {
+            throw new StopExecutionException();
+        }
+
+        if (instances > 1) {
+            if (watch) {
+                throw new InvalidUserDataException("Can't combine \"--watch\" with \"--instances\"");
+            }
+            runInstances(instances, serverJarFile, runtimeDirectory, taskJvmArguments, taskServerArguments);
+            // The instances were already run, so JavaExec doesn't start another server.
+            throw new StopExecutionException();
+        }
+
+        if (watch) {
+            runWatching(serverJarFile, runtimeDirectory, taskJvmArguments, taskServerArguments,
+                pluginArchiveFile, modsArchiveFile);
+            // The server was already run by the watch loop, so JavaExec doesn't start another one.
+            throw new StopExecutionException();
+        }
+
         PluginLog.info("Starting development server...");
 
         workingDir(runtimeDirectory);
@@ -188,4 +251,246 @@ public abstract class RunServerTask extends JavaExec {
         setStandardOutput(System.out);
         setErrorOutput(System.err);
     }
+
+    // Tasks, which start the server themselves, return true, so JavaExec doesn't start it again.
+    protected boolean launchServer(File serverJarFile, File runtimeDirectory,
+                                   List<String> jvmArguments, List<String> serverArguments) {
+        return false;
+    }
+
+    private int parseInstances(String instances) {
+        try {
+            int amount = Integer.parseInt(instances.trim());
+            if (amount < 1) {
+                throw new InvalidUserDataException("Can't run less than one instance: " + instances);
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new InvalidUserDataException("Can't parse amount of instances: " + instances);
+        }
+    }
+
+    private void runInstances(int instances, File serverJarFile, File runtimeDirectory,
+                              List<String> jvmArguments, List<String> serverArguments) {
+        PluginLog.info("Preparing " + instances + " instances from runtime directory...");
+        List<File> instanceDirectories = new ArrayList<>();
+        for (int instance = 1; instance <= instances; instance++) {
+            File instanceDirectory = ServerInstanceGroup.getInstanceDirectory(runtimeDirectory, instance);
+            instanceDirectory.mkdirs();
+            if (getDeleteLogsOnStart().get()) {
+                RuntimeLogs.cleanUp(instanceDirectory, getLogRetention().get(),
+                    getMaxArchivedLogRuns().get(), getMaxArchivedLogMegabytes().get() * 1024 * 1024);
+            }
+            try {
+                InstanceTemplate.provision(runtimeDirectory, instanceDirectory);
+            } catch (IOException e) {
+                throw new GradleException("Can't prepare instance directory " + instanceDirectory.getAbsolutePath() + ": " + e.getMessage(), e);
+            }
+            instanceDirectories.add(instanceDirectory);
+        }
+
+        List<String> commandPrefix = new ArrayList<>();
+        commandPrefix.add(resolveJavaExecutable());
+        commandPrefix.addAll(jvmArguments);
+        commandPrefix.add("-jar");
+        commandPrefix.add(serverJarFile.getAbsolutePath());
+        ServerInstanceGroup.run(commandPrefix, serverArguments, getBindAddress().get(), instanceDirectories,
+            Pattern.compile(getReadyPattern().get()), getReadyTimeoutSeconds().get(), getStopTimeoutSeconds().get());
+    }
+
+    private void runWatching(File serverJarFile, File runtimeDirectory,
+                             List<String> jvmArguments, List<String> serverArguments,
+                             File pluginArchiveFile, File modsArchiveFile) {
+        List<String> command = new ArrayList<>();
+        command.add(resolveJavaExecutable());
+        command.addAll(jvmArguments);
+        command.add("-jar");
+        command.add(serverJarFile.getAbsolutePath());
+        command.addAll(serverArguments);
+
+        List<File> watchFiles = new ArrayList<>(getWatchFiles().getFiles());
+        watchFiles.add(pluginArchiveFile);
+        long pollMillis = Math.max(50, Math.min(250, getWatchDebounceMillis().get() / 2));
+        long debounceNanos = TimeUnit.MILLISECONDS.toNanos(getWatchDebounceMillis().get());
+        long stopTimeoutSeconds = getStopTimeoutSeconds().get();
+
+        AtomicReference<ServerProcess> currentServer = new AtomicReference<>();
+        Thread inputThread = ServerProcess.startInputForwarding(() -> {
+            ServerProcess server = currentServer.get();
+            return server == null ? List.of() : List.of(server);
+        });
+
+        PluginLog.info("Starting development server in watch mode...");
+        PluginLog.info("Rebuild the plugin (i.e. \"gradlew jar --continuous\") to restart the server, type \"stop\" to exit.");
+        try {
+            // "prepareRuntime" only synced the archive, if the plugin is copied without watch mode as well.
+            swapArchive(runtimeDirectory, pluginArchiveFile, modsArchiveFile);
+            currentServer.set(startServer(command, runtimeDirectory));
+            long fingerprint = fingerprint(watchFiles);
+            long firstChangeNanos = 0;
+            long lastChangeNanos = 0;
+            int changes = 0;
+            boolean crashed = false;
+            while (true) {
+                ServerProcess server = currentServer.get();
+                if (!crashed && !server.isAlive()) {
+                    int exitValue = server.exitValue();
+                    if (exitValue == 0) {
+                        PluginLog.info("Server stopped, leaving watch mode.");
+                        return;
+                    }
+                    // A crashing plugin shouldn't end the session, the next build restarts it.
+                    PluginLog.info("Server exited with code " + exitValue + ", waiting for changes...");
+                    crashed = true;
+                }
+
+                Thread.sleep(pollMillis);
+                long currentFingerprint = fingerprint(watchFiles);
+                long now = System.nanoTime();
+                if (currentFingerprint != fingerprint) {
+                    fingerprint = currentFingerprint;
+                    if (changes == 0) {
+                        firstChangeNanos = now;
+                    }
+                    lastChangeNanos = now;
+                    changes++;
+                    continue;
+                }
+                // Restarts only once the changes settled and the archive was completely written.
+                if (changes == 0 || now - lastChangeNanos < debounceNanos || !isReadableArchive(pluginArchiveFile)) {
+                    continue;
+                }
+
+                PluginLog.info("Detected " + changes + " change(s), restarting development server...");
+                long stopStartNanos = System.nanoTime();
+                server.stop(stopTimeoutSeconds);
+                long stopMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stopStartNanos);
+                swapArchive(runtimeDirectory, pluginArchiveFile, modsArchiveFile);
+                currentServer.set(startServer(command, runtimeDirectory));
+                long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstChangeNanos);
+                PluginLog.info("Restarted development server in " + latencyMillis + "ms after the first change (stopping took " + stopMillis + "ms)");
+                changes = 0;
+                crashed = false;
+            }
+        } catch (InterruptedException e) {
+            // Cancelled build, i.e. by CTRL+C
+            Thread.currentThread().interrupt();
+        } finally {
+            ServerProcess server = currentServer.getAndSet(null);
+            if (server != null) {
+                server.stop(stopTimeoutSeconds);
+            }
+            inputThread.interrupt();
+        }
+    }
+
+    private String resolveAOTCache(File serverJarFile, File pluginArchiveFile, File runtimeDirectory, File clientAOTFile,
+                                   List<String> jvmArguments, List<String> serverArguments) {
+        String clientAOTCache = clientAOTFile.exists() ? clientAOTFile.getAbsolutePath() : null;
+        ServerAOTCache aotCache = new ServerAOTCache(runtimeDirectory);
+        boolean forceTraining = getTrainAOT().getOrElse(false);
+        boolean retrain = getRetrainAOTAutomatically().getOrElse(false);
+        // Hashing the jars is only worth it, if there is a cache to check.
+        if (!forceTraining && !retrain && !aotCache.exists()) {
+            return clientAOTCache;
+        }
+
+        String javaExecutable = resolveJavaExecutable();
+        AOTCacheKey key;
+        try {
+            // The hashes of unchanged jars are taken from the sync state, "prepareRuntime" often computed them already.
+            RuntimeSync sync = RuntimeSync.load(runtimeDirectory);
+            key = AOTCacheKey.create(sync, serverJarFile, pluginArchiveFile, javaExecutable, jvmArguments);
+            sync.save();
+        } catch (IOException e) {
+            PluginLog.info("Can't compute AOT cache key, using the client's AOT cache: " + e.getMessage());
+            return clientAOTCache;
+        }
+        List<String> changes = aotCache.exists() ? key.describeChanges(aotCache.loadKey()) : List.of("no cache");
+        if (!forceTraining && changes.isEmpty()) {
+            PluginLog.info("Using project AOT cache " + aotCache.getCacheFile().getAbsolutePath());
+            return aotCache.getCacheFile().getAbsolutePath();
+        }
+        if (!forceTraining && !retrain) {
+            PluginLog.info("Project AOT cache is outdated (" + String.join(", ", changes) + "), retrain it with \"runServer --train-aot\"");
+            return clientAOTCache;
+        }
+
+        List<String> baselineJvmArguments = new ArrayList<>(jvmArguments);
+        if (clientAOTCache != null) {
+            baselineJvmArguments.add(0, "-XX:AOTCache=" + clientAOTCache);
+        }
+        PluginLog.info("Project AOT cache needs training (" + (forceTraining ? "requested" : String.join(", ", changes)) + ")");
+        aotCache.train(javaExecutable, baselineJvmArguments, jvmArguments, serverJarFile, serverArguments, runtimeDirectory,
+            Pattern.compile(getReadyPattern().get()), getReadyTimeoutSeconds().get(), getStopTimeoutSeconds().get(), key);
+        return aotCache.getCacheFile().getAbsolutePath();
+    }
+
+    private ServerProcess startServer(List<String> command, File runtimeDirectory) {
+        try {
+            return ServerProcess.start(command, runtimeDirectory, System.out);
+        } catch (IOException e) {
+            throw new GradleException("Can't start development server: " + e.getMessage(), e);
+        }
+    }
+
+    protected String resolveJavaExecutable() {
+        if (getJavaLauncher().isPresent()) {
+            return getJavaLauncher().get().getExecutablePath().getAsFile().getAbsolutePath();
+        }
+        if (getExecutable() != null) {
+            return getExecutable();
+        }
+        return new File(System.getProperty("java.home"), "bin" + File.separator + "java").getAbsolutePath();
+    }
+
+    private void swapArchive(File runtimeDirectory, File pluginArchiveFile, File modsArchiveFile) {
+        RuntimeSync sync = RuntimeSync.load(runtimeDirectory);
+        try {
+            sync.syncFile(pluginArchiveFile, modsArchiveFile, true, false);
+            sync.save();
+        } catch (IOException e) {
+            throw new GradleException("Can't sync plugin archive into runtime: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isReadableArchive(File archiveFile) {
+        if (!archiveFile.isFile()) {
+            return false;
+        }
+        try (ZipFile ignored = new ZipFile(archiveFile)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Only sizes and modification times, so polling stays cheap, even for larger resource directories.
+    private static long fingerprint(List<File> files) {
+        long fingerprint = 1;
+        for (File file : files) {
+            if (!file.exists()) {
+                fingerprint = 31 * fingerprint + file.hashCode();
+                continue;
+            }
+            if (file.isFile()) {
+                fingerprint = 31 * fingerprint + fingerprint(file.toPath());
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(file.toPath())) {
+                for (Path path : (Iterable<Path>) paths.sorted()::iterator) {
+                    fingerprint = 31 * fingerprint + fingerprint(path);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Files changed while walking, the next poll picks them up.
+                fingerprint = 31 * fingerprint + System.nanoTime();
+            }
+        }
+        return fingerprint;
+    }
+
+    private static long fingerprint(Path path) {
+        File file = path.toFile();
+        return ((31L * path.hashCode() + file.length()) * 31L) + file.lastModified();
+    }
 }
@@ -0,0 +1,113 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.aot;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.RuntimeSync;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AOTCacheKey {
+
+    private static final String SERVER_JAR = "serverJar";
+    private static final String PLUGIN_JAR = "pluginJar";
+    private static final String JVM = "jvm";
+    private static final String JVM_ARGUMENTS = "jvmArguments";
+
+    String serverJar;
+    String pluginJar;
+    String jvm;
+    // Flags like the garbage collector have to match the recording JVM, otherwise the cache is rejected.
+    String jvmArguments;
+
+    // The jars are only hashed again, once their size or mtime changed.
+    public static AOTCacheKey create(RuntimeSync sync, File serverJarFile, File pluginArchiveFile,
+                                     String javaExecutable, List<String> jvmArguments) throws IOException {
+        return new AOTCacheKey(
+            sync.hashSource(serverJarFile),
+            sync.hashSource(pluginArchiveFile),
+            hashJvm(javaExecutable),
+            hash(String.join("\n", jvmArguments))
+        );
+    }
+
+    // The release file names the exact build, the modules image changes with every update of the JDK.
+    private static String hashJvm(String javaExecutable) throws IOException {
+        File executable = new File(javaExecutable).getCanonicalFile();
+        File javaHome = executable.getParentFile().getParentFile();
+        StringBuilder identity = new StringBuilder(executable.getAbsolutePath());
+        File releaseFile = new File(javaHome, "release");
+        if (releaseFile.isFile()) {
+            identity.append('\n').append(Files.readString(releaseFile.toPath()));
+        }
+        File modulesFile = new File(javaHome, "lib" + File.separator + "modules");
+        if (modulesFile.isFile()) {
+            identity.append('\n').append(modulesFile.length()).append(':').append(modulesFile.lastModified());
+        }
+        return hash(identity.toString());
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static @Nullable AOTCacheKey fromProperties(Properties properties) {
+        String serverJar = properties.getProperty(SERVER_JAR);
+        String pluginJar = properties.getProperty(PLUGIN_JAR);
+        String jvm = properties.getProperty(JVM);
+        String jvmArguments = properties.getProperty(JVM_ARGUMENTS);
+        if (serverJar == null || pluginJar == null || jvm == null || jvmArguments == null) {
+            return null;
+        }
+        return new AOTCacheKey(serverJar, pluginJar, jvm, jvmArguments);
+    }
+
+    public void toProperties(Properties properties) {
+        properties.setProperty(SERVER_JAR, serverJar);
+        properties.setProperty(PLUGIN_JAR, pluginJar);
+        properties.setProperty(JVM, jvm);
+        properties.setProperty(JVM_ARGUMENTS, jvmArguments);
+    }
+
+    public List<String> describeChanges(@Nullable AOTCacheKey previous) {
+        List<String> changes = new ArrayList<>();
+        if (previous == null) {
+            changes.add("no key");
+            return changes;
+        }
+        if (!serverJar.equals(previous.serverJar)) {
+            changes.add("server jar");
+        }
+        if (!pluginJar.equals(previous.pluginJar)) {
+            changes.add("plugin jar");
+        }
+        if (!jvm.equals(previous.jvm)) {
+            changes.add("JVM");
+        }
+        if (!jvmArguments.equals(previous.jvmArguments)) {
+            changes.add("JVM arguments");
+        }
+        return changes;
+    }
+}
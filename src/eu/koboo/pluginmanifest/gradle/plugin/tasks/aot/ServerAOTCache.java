@@ -0,0 +1,154 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.aot;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.ServerProcess;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.gradle.api.GradleException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ServerAOTCache {
+
+    public static final String CACHE_DIRECTORY = "pluginmanifest";
+    private static final String CACHE_FILE = "server.aot";
+    private static final String KEY_FILE = "server.aot.properties";
+    private static final String BOOT_BEFORE = "bootMillisBefore";
+    private static final String BOOT_AFTER = "bootMillisAfter";
+
+    File cacheFile;
+    File keyFile;
+
+    public ServerAOTCache(File runtimeDirectory) {
+        File cacheDirectory = new File(runtimeDirectory, CACHE_DIRECTORY);
+        this.cacheFile = new File(cacheDirectory, CACHE_FILE);
+        this.keyFile = new File(cacheDirectory, KEY_FILE);
+    }
+
+    public boolean exists() {
+        return cacheFile.isFile() && keyFile.isFile();
+    }
+
+    public @Nullable AOTCacheKey loadKey() {
+        if (!keyFile.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(keyFile.toPath())) {
+            properties.load(inputStream);
+        } catch (IOException e) {
+            return null;
+        }
+        return AOTCacheKey.fromProperties(properties);
+    }
+
+    // Measures the boot with the previous arguments, records the cache and measures the boot again with it.
+    public void train(String javaExecutable, List<String> baselineJvmArguments, List<String> jvmArguments,
+                      File serverJarFile, List<String> serverArguments, File runtimeDirectory,
+                      Pattern readyPattern, long readyTimeoutSeconds, long stopTimeoutSeconds,
+                      AOTCacheKey key) {
+        PluginLog.info("Training project AOT cache, the server is started three times...");
+        File cacheDirectory = cacheFile.getParentFile();
+        if (!cacheDirectory.exists()) {
+            cacheDirectory.mkdirs();
+        }
+
+        PluginLog.info("AOT training 1/3: Measuring boot time without the project AOT cache...");
+        long bootMillisBefore = boot(javaExecutable, baselineJvmArguments, serverJarFile, serverArguments,
+            runtimeDirectory, readyPattern, readyTimeoutSeconds, stopTimeoutSeconds);
+
+        // The JVM writes the cache, after it exited, so a killed server leaves no cache behind.
+        PluginLog.info("AOT training 2/3: Recording AOT cache...");
+        File recordingFile = new File(cacheDirectory, CACHE_FILE + ".tmp");
+        recordingFile.delete();
+        List<String> recordingArguments = new ArrayList<>(jvmArguments);
+        recordingArguments.add("-XX:AOTCacheOutput=" + recordingFile.getAbsolutePath());
+        boot(javaExecutable, recordingArguments, serverJarFile, serverArguments,
+            runtimeDirectory, readyPattern, readyTimeoutSeconds, Math.max(stopTimeoutSeconds, readyTimeoutSeconds));
+        if (!recordingFile.isFile()) {
+            throw new GradleException("Can't train AOT cache, the JVM didn't write " + recordingFile.getAbsolutePath()
+                + " (Requires JDK 25 or newer)");
+        }
+        try {
+            Files.move(recordingFile.toPath(), cacheFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new GradleException("Can't move AOT cache to " + cacheFile.getAbsolutePath(), e);
+        }
+
+        PluginLog.info("AOT training 3/3: Measuring boot time with the project AOT cache...");
+        List<String> cachedArguments = new ArrayList<>(jvmArguments);
+        cachedArguments.add(0, "-XX:AOTCache=" + cacheFile.getAbsolutePath());
+        long bootMillisAfter = boot(javaExecutable, cachedArguments, serverJarFile, serverArguments,
+            runtimeDirectory, readyPattern, readyTimeoutSeconds, stopTimeoutSeconds);
+
+        writeKey(key, bootMillisBefore, bootMillisAfter);
+        long savedPercent = bootMillisBefore == 0 ? 0 : (bootMillisBefore - bootMillisAfter) * 100 / bootMillisBefore;
+        PluginLog.info("Trained project AOT cache: " + cacheFile.getAbsolutePath());
+        PluginLog.info("Boot time: " + bootMillisBefore + "ms before, " + bootMillisAfter + "ms after (" + savedPercent + "% faster)");
+    }
+
+    private long boot(String javaExecutable, List<String> jvmArguments, File serverJarFile,
+                      List<String> serverArguments, File runtimeDirectory,
+                      Pattern readyPattern, long readyTimeoutSeconds, long stopTimeoutSeconds) {
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable);
+        command.addAll(jvmArguments);
+        command.add("-jar");
+        command.add(serverJarFile.getAbsolutePath());
+        command.addAll(serverArguments);
+
+        ServerProcess server;
+        try {
+            server = ServerProcess.start(command, runtimeDirectory, System.out, readyPattern);
+        } catch (IOException e) {
+            throw new GradleException("Can't start server for AOT training: " + e.getMessage(), e);
+        }
+        try {
+            long readyNanos = server.awaitReady(readyTimeoutSeconds);
+            if (readyNanos < 0) {
+                String reason = server.isAlive()
+                    ? "didn't print a line matching \"" + readyPattern.pattern() + "\" within " + readyTimeoutSeconds + "s"
+                    : "exited with code " + server.exitValue();
+                throw new GradleException("Can't train AOT cache, the server " + reason);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(readyNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("AOT training was interrupted", e);
+        } finally {
+            server.stop(stopTimeoutSeconds);
+        }
+    }
+
+    private void writeKey(AOTCacheKey key, long bootMillisBefore, long bootMillisAfter) {
+        Properties properties = new Properties();
+        key.toProperties(properties);
+        properties.setProperty(BOOT_BEFORE, Long.toString(bootMillisBefore));
+        properties.setProperty(BOOT_AFTER, Long.toString(bootMillisAfter));
+        Path temporaryFile = keyFile.toPath().resolveSibling(KEY_FILE + ".tmp");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+                properties.store(outputStream, "pluginmanifest AOT cache key");
+            }
+            Files.move(temporaryFile, keyFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new GradleException("Can't write AOT cache key " + keyFile.getAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.benchmark;
+
+import groovy.json.JsonOutput;
+import groovy.json.JsonSlurper;
+import lombok.experimental.UtilityClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// One json object per line, so the history can be appended without reading it and diffs stay readable.
+@UtilityClass
+public class BenchmarkHistory {
+
+    public List<Map<String, Object>> read(File historyFile) throws IOException {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        if (!historyFile.isFile()) {
+            return entries;
+        }
+        JsonSlurper slurper = new JsonSlurper();
+        for (String line : Files.readAllLines(historyFile.toPath(), StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                if (slurper.parseText(line) instanceof Map<?, ?> entry) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> typedEntry = (Map<String, Object>) entry;
+                    entries.add(typedEntry);
+                }
+            } catch (RuntimeException ignored) {
+                // Broken lines, i.e. from a merge conflict, don't count as baseline.
+            }
+        }
+        return entries;
+    }
+
+    public void append(File historyFile, List<Map<String, Object>> entries) throws IOException {
+        File parentDirectory = historyFile.getAbsoluteFile().getParentFile();
+        if (!parentDirectory.exists()) {
+            parentDirectory.mkdirs();
+        }
+        StringBuilder lines = new StringBuilder();
+        for (Map<String, Object> entry : entries) {
+            lines.append(JsonOutput.toJson(entry)).append('\n');
+        }
+        Files.writeString(historyFile.toPath(), lines, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // The median of the last runs with the same set and arguments, so a single outlier doesn't move the baseline.
+    // Regressed runs are skipped, otherwise every failed run would lower the bar for the next one.
+    public long baselineMillis(List<Map<String, Object>> history, StartupResult result, int baselineRuns) {
+        List<Long> previous = new ArrayList<>();
+        for (Map<String, Object> entry : history) {
+            if (!result.getSet().equals(entry.get("Set"))
+                || !result.getJvmArguments().equals(entry.get("JvmArguments"))
+                || Boolean.TRUE.equals(entry.get("Regressed"))
+                || !(entry.get("P50Millis") instanceof Number p50Millis)) {
+                continue;
+            }
+            previous.add(p50Millis.longValue());
+        }
+        if (previous.isEmpty()) {
+            return -1;
+        }
+        List<Long> latest = new ArrayList<>(previous.subList(Math.max(0, previous.size() - baselineRuns), previous.size()));
+        latest.sort(null);
+        int middle = latest.size() / 2;
+        return latest.size() % 2 == 1 ? latest.get(middle) : (latest.get(middle - 1) + latest.get(middle)) / 2;
+    }
+}
@@ -0,0 +1,60 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.benchmark;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class StartupResult {
+
+    String set;
+    List<String> jvmArguments;
+    List<Long> timesMillis;
+    long minMillis;
+    long p50Millis;
+    long p90Millis;
+    long maxMillis;
+    long meanMillis;
+
+    public StartupResult(String set, List<String> jvmArguments, List<Long> timesMillis) {
+        this.set = set;
+        this.jvmArguments = List.copyOf(jvmArguments);
+        this.timesMillis = List.copyOf(timesMillis);
+        List<Long> sorted = new ArrayList<>(timesMillis);
+        sorted.sort(null);
+        this.minMillis = sorted.getFirst();
+        this.p50Millis = percentile(sorted, 50);
+        this.p90Millis = percentile(sorted, 90);
+        this.maxMillis = sorted.getLast();
+        this.meanMillis = Math.round(sorted.stream().mapToLong(Long::longValue).average().orElse(0));
+    }
+
+    // Nearest rank, so the percentile is always one of the measured times.
+    private static long percentile(List<Long> sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    public Map<String, Object> toHistoryEntry(Instant timestamp, String pluginVersion, boolean regressed) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("Timestamp", timestamp.toString());
+        entry.put("Set", set);
+        entry.put("JvmArguments", jvmArguments);
+        entry.put("PluginVersion", pluginVersion);
+        entry.put("TimesMillis", timesMillis);
+        entry.put("MinMillis", minMillis);
+        entry.put("P50Millis", p50Millis);
+        entry.put("P90Millis", p90Millis);
+        entry.put("MaxMillis", maxMillis);
+        entry.put("MeanMillis", meanMillis);
+        entry.put("Regressed", regressed);
+        return entry;
+    }
+}
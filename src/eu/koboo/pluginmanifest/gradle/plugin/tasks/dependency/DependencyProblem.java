@@ -0,0 +1,28 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.dependency;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class DependencyProblem {
+
+    public enum Type {
+        INVALID_MANIFEST,
+        DUPLICATE_PLUGIN,
+        MISSING_DEPENDENCY,
+        VERSION_MISMATCH,
+        CYCLE
+    }
+
+    Type type;
+    String message;
+
+    @Override
+    public String toString() {
+        return type + ": " + message;
+    }
+}
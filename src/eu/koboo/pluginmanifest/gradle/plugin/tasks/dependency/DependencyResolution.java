@@ -0,0 +1,22 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.dependency;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class DependencyResolution {
+
+    // Plugins in cycles are missing from the load order.
+    List<PluginDescriptor> loadOrder;
+    List<DependencyProblem> problems;
+
+    public boolean hasProblems() {
+        return !problems.isEmpty();
+    }
+}
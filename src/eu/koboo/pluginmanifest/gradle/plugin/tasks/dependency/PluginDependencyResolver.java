@@ -0,0 +1,261 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.dependency;
+
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ValidationException;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVer;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVerIntervalSet;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVerRange;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+// Builds the dependency graph of all plugins and computes their load order.
+// Every plugin gets an index, so the graph is only made of int arrays.
+// Every problem is collected, instead of stopping at the first one.
+@UtilityClass
+public class PluginDependencyResolver {
+
+    public @NotNull DependencyResolution resolve(@NotNull List<PluginDescriptor> descriptors) {
+        List<DependencyProblem> problems = new ArrayList<>();
+
+        // Index the plugins, the first plugin of an id wins.
+        Map<String, Integer> pluginIndex = new HashMap<>(descriptors.size() * 2);
+        List<PluginDescriptor> plugins = new ArrayList<>(descriptors.size());
+        for (PluginDescriptor descriptor : descriptors) {
+            Integer existingIndex = pluginIndex.putIfAbsent(descriptor.getId(), plugins.size());
+            if (existingIndex != null) {
+                PluginDescriptor existing = plugins.get(existingIndex);
+                problems.add(new DependencyProblem(DependencyProblem.Type.DUPLICATE_PLUGIN,
+                    descriptor.getId() + " is provided by " + existing.getSource() + " and " + descriptor.getSource()
+                        + ", using " + existing.getSource()));
+                continue;
+            }
+            plugins.add(descriptor);
+        }
+        int pluginCount = plugins.size();
+
+        SemVer[] versions = new SemVer[pluginCount];
+        for (int i = 0; i < pluginCount; i++) {
+            PluginDescriptor plugin = plugins.get(i);
+            String version = plugin.getVersion();
+            if (version == null) {
+                problems.add(new DependencyProblem(DependencyProblem.Type.INVALID_MANIFEST,
+                    plugin.getId() + " (" + plugin.getSource() + ") has no version"));
+                continue;
+            }
+            try {
+                versions[i] = SemVer.parseString(plugin.getId() + ".version", version);
+            } catch (ValidationException e) {
+                problems.add(new DependencyProblem(DependencyProblem.Type.INVALID_MANIFEST,
+                    plugin.getId() + " (" + plugin.getSource() + "): " + e.getFormattedMessage()));
+            }
+        }
+
+        // An edge "from -> to" means "from" loads before "to".
+        Map<String, SemVerIntervalSet> rangeCache = new HashMap<>();
+        IntList[] edges = new IntList[pluginCount];
+        for (int i = 0; i < pluginCount; i++) {
+            edges[i] = new IntList();
+        }
+        for (int i = 0; i < pluginCount; i++) {
+            PluginDescriptor plugin = plugins.get(i);
+            for (Map.Entry<String, String> entry : plugin.getDependencies().entrySet()) {
+                Integer dependencyIndex = pluginIndex.get(entry.getKey());
+                if (dependencyIndex == null) {
+                    problems.add(new DependencyProblem(DependencyProblem.Type.MISSING_DEPENDENCY,
+                        plugin.getId() + " requires " + entry.getKey() + " " + entry.getValue() + ", which is not installed"));
+                    continue;
+                }
+                checkVersion(plugin, "requires", entry, versions[dependencyIndex], rangeCache, problems);
+                edges[dependencyIndex].add(i);
+            }
+            for (Map.Entry<String, String> entry : plugin.getOptionalDependencies().entrySet()) {
+                Integer dependencyIndex = pluginIndex.get(entry.getKey());
+                if (dependencyIndex == null) {
+                    continue;
+                }
+                checkVersion(plugin, "optionally requires", entry, versions[dependencyIndex], rangeCache, problems);
+                edges[dependencyIndex].add(i);
+            }
+            for (Map.Entry<String, String> entry : plugin.getLoadBefore().entrySet()) {
+                Integer targetIndex = pluginIndex.get(entry.getKey());
+                if (targetIndex == null) {
+                    continue;
+                }
+                // Only load before the versions in the range, anything else is no problem.
+                SemVerIntervalSet range = compileRange(plugin, entry, rangeCache, problems);
+                SemVer targetVersion = versions[targetIndex];
+                if (range != null && targetVersion != null && range.contains(targetVersion)) {
+                    edges[i].add(targetIndex);
+                }
+            }
+        }
+
+        // Kahn's algorithm, ties are broken by the plugin id, so the order is stable.
+        int[] inDegree = new int[pluginCount];
+        for (int i = 0; i < pluginCount; i++) {
+            for (int edge = 0; edge < edges[i].size; edge++) {
+                inDegree[edges[i].values[edge]]++;
+            }
+        }
+        PriorityQueue<Integer> ready = new PriorityQueue<>(Comparator.comparing(index -> plugins.get(index).getId()));
+        for (int i = 0; i < pluginCount; i++) {
+            if (inDegree[i] == 0) {
+                ready.add(i);
+            }
+        }
+        List<PluginDescriptor> loadOrder = new ArrayList<>(pluginCount);
+        boolean[] loaded = new boolean[pluginCount];
+        while (!ready.isEmpty()) {
+            int index = ready.poll();
+            loaded[index] = true;
+            loadOrder.add(plugins.get(index));
+            for (int edge = 0; edge < edges[index].size; edge++) {
+                int next = edges[index].values[edge];
+                if (--inDegree[next] == 0) {
+                    ready.add(next);
+                }
+            }
+        }
+        if (loadOrder.size() < pluginCount) {
+            reportCycles(plugins, edges, loaded, problems);
+        }
+        return new DependencyResolution(loadOrder, problems);
+    }
+
+    private void checkVersion(PluginDescriptor plugin, String relation, Map.Entry<String, String> entry, SemVer dependencyVersion,
+                              Map<String, SemVerIntervalSet> rangeCache, List<DependencyProblem> problems) {
+        SemVerIntervalSet range = compileRange(plugin, entry, rangeCache, problems);
+        if (range == null || dependencyVersion == null || range.contains(dependencyVersion)) {
+            return;
+        }
+        problems.add(new DependencyProblem(DependencyProblem.Type.VERSION_MISMATCH,
+            plugin.getId() + " " + relation + " " + entry.getKey() + " " + entry.getValue() + ", but found " + dependencyVersion));
+    }
+
+    private SemVerIntervalSet compileRange(PluginDescriptor plugin, Map.Entry<String, String> entry,
+                                           Map<String, SemVerIntervalSet> rangeCache, List<DependencyProblem> problems) {
+        String rangeString = entry.getValue();
+        SemVerIntervalSet range = rangeCache.get(rangeString);
+        if (range != null) {
+            return range;
+        }
+        try {
+            range = SemVerRange.compile(entry.getKey(), rangeString.trim());
+        } catch (ValidationException | IllegalArgumentException e) {
+            problems.add(new DependencyProblem(DependencyProblem.Type.INVALID_MANIFEST,
+                plugin.getId() + " (" + plugin.getSource() + ") has an invalid range for " + entry.getKey() + " -> \"" + rangeString + "\""));
+            return null;
+        }
+        rangeCache.put(rangeString, range);
+        return range;
+    }
+
+    // Tarjan's algorithm over the plugins, Kahn's algorithm couldn't load.
+    // Components with more than one plugin, or a plugin depending on itself, are cycles.
+    // The remaining plugins only depend on a cycle.
+    private void reportCycles(List<PluginDescriptor> plugins, IntList[] edges, boolean[] loaded, List<DependencyProblem> problems) {
+        int pluginCount = plugins.size();
+        int[] order = new int[pluginCount];
+        int[] lowLink = new int[pluginCount];
+        Arrays.fill(order, -1);
+        boolean[] onStack = new boolean[pluginCount];
+        int[] stack = new int[pluginCount];
+        int stackSize = 0;
+        int[] callNodes = new int[pluginCount];
+        int[] callEdges = new int[pluginCount];
+        int counter = 0;
+        boolean[] inCycle = new boolean[pluginCount];
+
+        for (int start = 0; start < pluginCount; start++) {
+            if (loaded[start] || order[start] != -1) {
+                continue;
+            }
+            int callSize = 0;
+            callNodes[callSize] = start;
+            callEdges[callSize] = 0;
+            callSize++;
+            order[start] = lowLink[start] = counter++;
+            stack[stackSize++] = start;
+            onStack[start] = true;
+
+            while (callSize > 0) {
+                int node = callNodes[callSize - 1];
+                if (callEdges[callSize - 1] < edges[node].size) {
+                    int next = edges[node].values[callEdges[callSize - 1]++];
+                    if (loaded[next]) {
+                        continue;
+                    }
+                    if (order[next] == -1) {
+                        order[next] = lowLink[next] = counter++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        callNodes[callSize] = next;
+                        callEdges[callSize] = 0;
+                        callSize++;
+                    } else if (onStack[next]) {
+                        lowLink[node] = Math.min(lowLink[node], order[next]);
+                    }
+                    continue;
+                }
+                callSize--;
+                if (callSize > 0) {
+                    int parent = callNodes[callSize - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+                if (lowLink[node] != order[node]) {
+                    continue;
+                }
+                List<String> component = new ArrayList<>();
+                int member;
+                do {
+                    member = stack[--stackSize];
+                    onStack[member] = false;
+                    component.add(plugins.get(member).getId());
+                } while (member != node);
+                if (component.size() > 1 || edges[node].contains(node)) {
+                    for (int i = stackSize; i < stackSize + component.size(); i++) {
+                        inCycle[stack[i]] = true;
+                    }
+                    Collections.sort(component);
+                    problems.add(new DependencyProblem(DependencyProblem.Type.CYCLE,
+                        "Dependency cycle between " + String.join(", ", component)));
+                }
+            }
+        }
+
+        List<String> blocked = new ArrayList<>();
+        for (int i = 0; i < pluginCount; i++) {
+            if (!loaded[i] && !inCycle[i]) {
+                blocked.add(plugins.get(i).getId());
+            }
+        }
+        if (!blocked.isEmpty()) {
+            Collections.sort(blocked);
+            problems.add(new DependencyProblem(DependencyProblem.Type.CYCLE,
+                "Can't load " + String.join(", ", blocked) + ", because they depend on a cycle"));
+        }
+    }
+
+    // Growable int array, so the edges don't box every index.
+    private static class IntList {
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean contains(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
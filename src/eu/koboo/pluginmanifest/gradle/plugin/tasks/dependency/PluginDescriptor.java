@@ -0,0 +1,56 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.dependency;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The parts of a manifest.json, which matter for resolving dependencies.
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PluginDescriptor {
+
+    String id;
+    String version;
+    String source;
+    Map<String, String> dependencies;
+    Map<String, String> optionalDependencies;
+    Map<String, String> loadBefore;
+
+    // Returns null, if the manifest has no "Group" or "Name".
+    public static @Nullable PluginDescriptor fromManifest(@NotNull Map<?, ?> manifest, @NotNull String source) {
+        Object group = manifest.get("Group");
+        Object name = manifest.get("Name");
+        if (!(group instanceof String) || !(name instanceof String)) {
+            return null;
+        }
+        Object version = manifest.get("Version");
+        return new PluginDescriptor(
+            group + ":" + name,
+            version instanceof String ? (String) version : null,
+            source,
+            readDependencyMap(manifest.get("Dependencies")),
+            readDependencyMap(manifest.get("OptionalDependencies")),
+            readDependencyMap(manifest.get("LoadBefore"))
+        );
+    }
+
+    private static Map<String, String> readDependencyMap(Object value) {
+        if (!(value instanceof Map<?, ?> map) || map.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> dependencyMap = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object range = entry.getValue();
+            dependencyMap.put(String.valueOf(entry.getKey()), range == null ? "*" : String.valueOf(range));
+        }
+        return dependencyMap;
+    }
+}
@@ -0,0 +1,123 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.detection;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// The parts of a class file, we need to build a superclass index.
+// Only the constant pool and the class attributes are read, the class never gets loaded.
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ClassFileHeader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String INNER_CLASSES = "InnerClasses";
+
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+    private static final int ACC_MODULE = 0x8000;
+
+    // Internal names, i.e. "com/example/MyPlugin"
+    String name;
+    @Nullable
+    String superName;
+    int accessFlags;
+    boolean nested;
+
+    public boolean isConcreteClass() {
+        return (accessFlags & (ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION | ACC_ENUM | ACC_MODULE)) == 0;
+    }
+
+    public static @NotNull ClassFileHeader read(@NotNull InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        // minor_version, major_version
+        in.skipNBytes(4);
+
+        int constantPoolCount = in.readUnsignedShort();
+        String[] utf8Entries = new String[constantPoolCount];
+        int[] classNameIndices = new int[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                // Utf8
+                case 1 -> utf8Entries[i] = in.readUTF();
+                // Class
+                case 7 -> classNameIndices[i] = in.readUnsignedShort();
+                // String, MethodType, Module, Package
+                case 8, 16, 19, 20 -> in.skipNBytes(2);
+                // MethodHandle
+                case 15 -> in.skipNBytes(3);
+                // Integer, Float, Fieldref, Methodref, InterfaceMethodref, NameAndType, Dynamic, InvokeDynamic
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipNBytes(4);
+                // Long, Double take up two entries
+                case 5, 6 -> {
+                    in.skipNBytes(8);
+                    i++;
+                }
+                default -> throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        int accessFlags = in.readUnsignedShort();
+        int thisClassIndex = in.readUnsignedShort();
+        int superClassIndex = in.readUnsignedShort();
+        String name = utf8Entries[classNameIndices[thisClassIndex]];
+        String superName = superClassIndex == 0 ? null : utf8Entries[classNameIndices[superClassIndex]];
+
+        int interfacesCount = in.readUnsignedShort();
+        in.skipNBytes(2L * interfacesCount);
+        // fields, methods
+        skipMembers(in);
+        skipMembers(in);
+
+        boolean nested = false;
+        int attributesCount = in.readUnsignedShort();
+        for (int i = 0; i < attributesCount && !nested; i++) {
+            int nameIndex = in.readUnsignedShort();
+            int length = in.readInt();
+            if (!INNER_CLASSES.equals(utf8Entries[nameIndex])) {
+                in.skipNBytes(length);
+                continue;
+            }
+            // Nested, local and anonymous classes list themselves as inner class.
+            int numberOfClasses = in.readUnsignedShort();
+            for (int j = 0; j < numberOfClasses; j++) {
+                int innerClassIndex = in.readUnsignedShort();
+                // outer_class_info_index, inner_name_index, inner_class_access_flags
+                in.skipNBytes(6);
+                if (innerClassIndex == thisClassIndex) {
+                    nested = true;
+                }
+            }
+        }
+        return new ClassFileHeader(name, superName, accessFlags, nested);
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int membersCount = in.readUnsignedShort();
+        for (int i = 0; i < membersCount; i++) {
+            // access_flags, name_index, descriptor_index
+            in.skipNBytes(6);
+            int attributesCount = in.readUnsignedShort();
+            for (int j = 0; j < attributesCount; j++) {
+                in.skipNBytes(2);
+                int length = in.readInt();
+                in.skipNBytes(length);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.detection;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Superclass index over the compiled classes of the project.
+// Superclasses outside the project (i.e. in HytaleServer.jar) are looked up
+// on the compile classpath, one class file at a time.
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PluginClassIndex implements Closeable {
+
+    public static final String JAVA_PLUGIN_CLASS = "com/hypixel/hytale/server/core/plugin/JavaPlugin";
+    private static final String OBJECT_CLASS = "java/lang/Object";
+    private static final String CLASS_SUFFIX = ".class";
+
+    Map<String, ClassFileHeader> projectClasses = new HashMap<>();
+    // Internal name -> super name, Optional.empty() if the class can't be found.
+    Map<String, Optional<String>> externalSuperNames = new HashMap<>();
+    Map<String, Boolean> extendsPluginCache = new HashMap<>();
+
+    List<File> classpathEntries;
+    Map<File, ZipFile> openedArchives = new HashMap<>();
+
+    public PluginClassIndex(@NotNull Collection<File> classesDirectories, @NotNull Collection<File> classpath) throws IOException {
+        this.classpathEntries = new ArrayList<>(classpath);
+        for (File classesDirectory : classesDirectories) {
+            if (!classesDirectory.isDirectory()) {
+                continue;
+            }
+            List<Path> classFiles;
+            try (Stream<Path> stream = Files.walk(classesDirectory.toPath())) {
+                classFiles = stream
+                    .filter(path -> path.toString().endsWith(CLASS_SUFFIX))
+                    .toList();
+            }
+            for (Path classFile : classFiles) {
+                try (InputStream inputStream = Files.newInputStream(classFile)) {
+                    ClassFileHeader header = ClassFileHeader.read(inputStream);
+                    projectClasses.put(header.getName(), header);
+                }
+            }
+        }
+    }
+
+    public @NotNull List<String> findPluginClasses() {
+        List<String> pluginClasses = new ArrayList<>();
+        for (ClassFileHeader header : projectClasses.values()) {
+            if (!header.isConcreteClass() || header.isNested()) {
+                continue;
+            }
+            if (!extendsJavaPlugin(header.getName())) {
+                continue;
+            }
+            pluginClasses.add(header.getName().replace('/', '.'));
+        }
+        Collections.sort(pluginClasses);
+        return pluginClasses;
+    }
+
+    private boolean extendsJavaPlugin(String className) {
+        Boolean cached = extendsPluginCache.get(className);
+        if (cached != null) {
+            return cached;
+        }
+        // Walk up the hierarchy and remember the answer for every class on the way.
+        List<String> visited = new ArrayList<>();
+        boolean result = false;
+        String superName = resolveSuperName(className);
+        while (superName != null && !superName.equals(OBJECT_CLASS)) {
+            if (superName.equals(JAVA_PLUGIN_CLASS)) {
+                result = true;
+                break;
+            }
+            Boolean superCached = extendsPluginCache.get(superName);
+            if (superCached != null) {
+                result = superCached;
+                break;
+            }
+            if (visited.contains(superName)) {
+                // Broken hierarchy, don't loop forever.
+                break;
+            }
+            visited.add(superName);
+            superName = resolveSuperName(superName);
+        }
+        extendsPluginCache.put(className, result);
+        for (String visitedName : visited) {
+            extendsPluginCache.put(visitedName, result);
+        }
+        return result;
+    }
+
+    private @Nullable String resolveSuperName(String className) {
+        ClassFileHeader projectClass = projectClasses.get(className);
+        if (projectClass != null) {
+            return projectClass.getSuperName();
+        }
+        Optional<String> externalSuperName = externalSuperNames.get(className);
+        if (externalSuperName == null) {
+            externalSuperName = Optional.ofNullable(readExternalSuperName(className));
+            externalSuperNames.put(className, externalSuperName);
+        }
+        return externalSuperName.orElse(null);
+    }
+
+    private @Nullable String readExternalSuperName(String className) {
+        String entryName = className + CLASS_SUFFIX;
+        for (File classpathEntry : classpathEntries) {
+            try {
+                if (classpathEntry.isDirectory()) {
+                    File classFile = new File(classpathEntry, entryName);
+                    if (!classFile.isFile()) {
+                        continue;
+                    }
+                    try (InputStream inputStream = Files.newInputStream(classFile.toPath())) {
+                        return ClassFileHeader.read(inputStream).getSuperName();
+                    }
+                }
+                if (!classpathEntry.isFile()) {
+                    continue;
+                }
+                ZipFile archive = openedArchives.get(classpathEntry);
+                if (archive == null) {
+                    archive = new ZipFile(classpathEntry);
+                    openedArchives.put(classpathEntry, archive);
+                }
+                // Only reads the single entry through the central directory.
+                ZipEntry entry = archive.getEntry(entryName);
+                if (entry == null) {
+                    continue;
+                }
+                try (InputStream inputStream = archive.getInputStream(entry)) {
+                    return ClassFileHeader.read(inputStream).getSuperName();
+                }
+            } catch (IOException e) {
+                // Unreadable classpath entries can't contain the class.
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ZipFile archive : openedArchives.values()) {
+            archive.close();
+        }
+        openedArchives.clear();
+    }
+}
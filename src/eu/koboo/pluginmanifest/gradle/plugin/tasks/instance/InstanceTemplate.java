@@ -0,0 +1,94 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.instance;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.RuntimeSync;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Creates the instance directories from the runtime directory.
+// Jars, zips and aot caches are only read by the server, so they are synced on every start.
+// The assets and aot caches of the client are hard linked, plugins are copied, so rebuilding them doesn't touch running instances.
+// Everything else (configs, worlds) is copied once, so the instances can diverge from the template.
+@UtilityClass
+public class InstanceTemplate {
+
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of("logs", "logs-archive", "pluginmanifest");
+    private static final String SKIPPED_PREFIX = "logs.deleting-";
+    // Every instance is started with the HytaleServer.jar of the runtime directory or the client,
+    // so it isn't provisioned and the AOT caches keep matching the path of the jar.
+    private static final String SERVER_JAR = "HytaleServer.jar";
+    private static final Set<String> CLIENT_FILES = Set.of("Assets.zip");
+
+    public void provision(File templateDirectory, File instanceDirectory) throws IOException {
+        Path templatePath = templateDirectory.toPath();
+        Map<String, Map<String, File>> sharedFiles = new LinkedHashMap<>();
+        // Synced, even if empty, so removed mods (or an old HytaleServer.jar) are removed from the instances as well.
+        sharedFiles.put("", new LinkedHashMap<>());
+        sharedFiles.put("mods", new LinkedHashMap<>());
+
+        Files.walkFileTree(templatePath, new SimpleFileVisitor<>() {
+            @Override
+            public @NotNull FileVisitResult preVisitDirectory(@NotNull Path directory, @NotNull BasicFileAttributes attributes) {
+                if (directory.equals(templatePath)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                String name = directory.getFileName().toString();
+                if (directory.getParent().equals(templatePath)
+                    && (SKIPPED_DIRECTORIES.contains(name) || name.startsWith(SKIPPED_PREFIX))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public @NotNull FileVisitResult visitFile(@NotNull Path file, @NotNull BasicFileAttributes attributes) throws IOException {
+                Path relativePath = templatePath.relativize(file);
+                if (relativePath.getParent() == null && file.getFileName().toString().equals(SERVER_JAR)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (isShared(file.getFileName().toString())) {
+                    Path relativeDirectory = relativePath.getParent();
+                    String directoryKey = relativeDirectory == null ? "" : relativeDirectory.toString();
+                    sharedFiles.computeIfAbsent(directoryKey, key -> new LinkedHashMap<>())
+                        .put(file.getFileName().toString(), file.toFile());
+                    return FileVisitResult.CONTINUE;
+                }
+                Path target = instanceDirectory.toPath().resolve(relativePath);
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.copy(file, target);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        RuntimeSync sync = RuntimeSync.load(instanceDirectory);
+        for (Map.Entry<String, Map<String, File>> entry : sharedFiles.entrySet()) {
+            if (entry.getKey().isEmpty()) {
+                sync.syncDirectory(entry.getValue(), instanceDirectory, InstanceTemplate::isClientFile);
+                continue;
+            }
+            sync.syncDirectory(entry.getValue(), new File(instanceDirectory, entry.getKey()));
+        }
+        sync.save();
+    }
+
+    private boolean isClientFile(File file) {
+        String fileName = file.getName();
+        return CLIENT_FILES.contains(fileName) || fileName.endsWith(".aot");
+    }
+
+    private boolean isShared(String fileName) {
+        return fileName.endsWith(".jar") || fileName.endsWith(".zip") || fileName.endsWith(".aot");
+    }
+}
@@ -0,0 +1,136 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.instance;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.ServerProcess;
+import org.gradle.api.GradleException;
+import org.gradle.api.InvalidUserDataException;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+public class ServerInstanceGroup {
+
+    public static final String BIND_ARGUMENT = "--bind";
+    private static final String INSTANCES_SUFFIX = "-instances";
+    private static final String INSTANCE_PREFIX = "instance-";
+    private static final String CONSOLE_LOG = "console.log";
+    private static final int DEFAULT_PORT = 5520;
+
+    public static File getInstanceDirectory(File runtimeDirectory, int instance) {
+        File instancesDirectory = new File(runtimeDirectory.getParentFile(), runtimeDirectory.getName() + INSTANCES_SUFFIX);
+        return new File(instancesDirectory, INSTANCE_PREFIX + instance);
+    }
+
+    // Supports "host:port", "[ipv6]:port" and only a host, which uses the default port.
+    public static String getBindHost(String bindAddress) {
+        checkBrackets(bindAddress);
+        int separator = bindAddress.lastIndexOf(':');
+        if (separator < 0 || bindAddress.endsWith("]")) {
+            return bindAddress;
+        }
+        return bindAddress.substring(0, separator);
+    }
+
+    public static int getBindPort(String bindAddress) {
+        checkBrackets(bindAddress);
+        int separator = bindAddress.lastIndexOf(':');
+        if (separator < 0 || bindAddress.endsWith("]")) {
+            return DEFAULT_PORT;
+        }
+        try {
+            return Integer.parseInt(bindAddress.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new InvalidUserDataException("Can't parse port of bindAddress: " + bindAddress);
+        }
+    }
+
+    // "::1" can't be told apart from host "::" with port 1, so ipv6 hosts need brackets.
+    private static void checkBrackets(String bindAddress) {
+        if (!bindAddress.startsWith("[") && bindAddress.indexOf(':') != bindAddress.lastIndexOf(':')) {
+            throw new InvalidUserDataException("Can't parse bindAddress \"" + bindAddress
+                + "\", put ipv6 addresses in brackets, i.e. \"[::1]:" + DEFAULT_PORT + "\"");
+        }
+    }
+
+    // Every instance gets the next port, its console is written into its own directory.
+    public static void run(List<String> commandPrefix, List<String> serverArguments, String bindAddress,
+                           List<File> instanceDirectories, Pattern readyPattern,
+                           long readyTimeoutSeconds, long stopTimeoutSeconds) {
+        String host = getBindHost(bindAddress);
+        int basePort = getBindPort(bindAddress);
+        if (basePort + instanceDirectories.size() - 1 > 65535) {
+            throw new InvalidUserDataException("Can't assign " + instanceDirectories.size() + " ports starting at " + basePort);
+        }
+
+        List<ServerProcess> servers = new CopyOnWriteArrayList<>();
+        List<PrintStream> consoles = new ArrayList<>();
+        Thread inputThread = ServerProcess.startInputForwarding(() -> servers);
+        try {
+            for (int i = 0; i < instanceDirectories.size(); i++) {
+                File instanceDirectory = instanceDirectories.get(i);
+                int port = basePort + i;
+                List<String> command = new ArrayList<>(commandPrefix);
+                command.addAll(serverArguments);
+                command.add(BIND_ARGUMENT);
+                command.add(host + ":" + port);
+
+                File consoleFile = new File(instanceDirectory, CONSOLE_LOG);
+                PrintStream console = new PrintStream(new FileOutputStream(consoleFile), true, StandardCharsets.UTF_8);
+                consoles.add(console);
+                ServerProcess server = ServerProcess.start(command, instanceDirectory, console, readyPattern);
+                servers.add(server);
+                PluginLog.info("Started instance " + (i + 1) + " on port " + port + ", console: " + consoleFile.getAbsolutePath());
+                awaitReadyInBackground(server, i + 1, readyTimeoutSeconds);
+            }
+            PluginLog.info("Type a command to send it to all instances, \"stop\" stops all of them.");
+
+            List<Integer> running = new ArrayList<>();
+            for (int i = 0; i < servers.size(); i++) {
+                running.add(i);
+            }
+            while (!running.isEmpty()) {
+                Thread.sleep(500);
+                for (Integer index : new ArrayList<>(running)) {
+                    ServerProcess server = servers.get(index);
+                    if (!server.isAlive()) {
+                        PluginLog.info("Instance " + (index + 1) + " exited with code " + server.exitValue());
+                        running.remove(index);
+                    }
+                }
+            }
+            PluginLog.info("All instances stopped.");
+        } catch (IOException e) {
+            throw new GradleException("Can't start server instance: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            // Cancelled build, i.e. by CTRL+C
+            Thread.currentThread().interrupt();
+        } finally {
+            ServerProcess.stopAll(servers, stopTimeoutSeconds);
+            inputThread.interrupt();
+            for (PrintStream console : consoles) {
+                console.close();
+            }
+        }
+    }
+
+    private static void awaitReadyInBackground(ServerProcess server, int instance, long readyTimeoutSeconds) {
+        Thread.ofVirtual().name("pluginmanifest-instance-ready").start(() -> {
+            try {
+                long readyNanos = server.awaitReady(readyTimeoutSeconds);
+                if (readyNanos >= 0) {
+                    PluginLog.info("Instance " + instance + " is ready after " + TimeUnit.NANOSECONDS.toMillis(readyNanos) + "ms");
+                }
+            } catch (InterruptedException ignored) {
+                // Stopped before it was ready
+            }
+        });
+    }
+}
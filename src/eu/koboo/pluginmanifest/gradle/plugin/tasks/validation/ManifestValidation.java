@@ -1,6 +1,7 @@
 package eu.koboo.pluginmanifest.gradle.plugin.tasks.validation;
 
 import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVer;
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVerIntervalSet;
 import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver.SemVerRange;
 import lombok.experimental.UtilityClass;
 
@@ -57,7 +58,10 @@ public class ManifestValidation {
         if (semVerRangeString.isEmpty()) {
             throw new IllegalArgumentException("cannot be empty");
         }
-        SemVerRange.parseString(key, semVerRangeString);
+        SemVerIntervalSet intervalSet = SemVerRange.compile(key, semVerRangeString);
+        if (intervalSet.isEmpty()) {
+            throw new ValidationException(key, semVerRangeString, "doesn't match any version");
+        }
     }
 
     @SuppressWarnings("all")
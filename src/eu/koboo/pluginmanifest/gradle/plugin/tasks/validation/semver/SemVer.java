@@ -3,71 +3,296 @@ package eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver;
 import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ValidationException;
 import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
 
-@Getter
-@RequiredArgsConstructor
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Precedence follows SemVer 2.0, build metadata is ignored by compareTo,
+// but not by equals, like BigDecimal ignores the scale.
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
-public class SemVer {
+public class SemVer implements Comparable<SemVer> {
+
+    // 21 bits per segment, so major, minor and patch fit into one positive long.
+    private static final int PACKED_BITS = 21;
+    private static final int PACKED_MAX = (1 << PACKED_BITS) - 1;
+    private static final long NOT_PACKED = -1;
 
+    // Dependency maps tend to repeat the same versions, so valid versions are shared.
+    private static final int INTERN_CACHE_SIZE = 4096;
+    private static final Map<String, SemVer> INTERN_CACHE = new ConcurrentHashMap<>();
+
+    @Getter
     int major;
+    @Getter
     int minor;
+    @Getter
     int patch;
     String[] release;
+    @Getter
     String build;
+    long packed;
+
+    public SemVer(int major, int minor, int patch, String[] release, String build) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.release = release;
+        this.build = build;
+        this.packed = pack(major, minor, patch);
+    }
 
     // MAJOR.MINOR.PATCH-RELEASE.RELEASE.RELEASE+BUILD
     public static SemVer parseString(String key, String versionString) throws ValidationException {
-        versionString = versionString.trim();
+        SemVer internedVersion = INTERN_CACHE.get(versionString);
+        if (internedVersion != null) {
+            return internedVersion;
+        }
 
-        if (versionString.startsWith("v")) {
-            versionString = versionString.substring(1);
+        int start = 0;
+        int end = versionString.length();
+        while (start < end && versionString.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && versionString.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start < end && versionString.charAt(start) == 'v') {
+            start++;
+        }
+
+        // Single pass over MAJOR.MINOR.PATCH, until the release or build starts.
+        int major = 0;
+        int minor = 0;
+        int patch = 0;
+        int segment = 0;
+        int segmentStart = start;
+        long segmentValue = 0;
+        int index = start;
+        for (; index < end; index++) {
+            char currentChar = versionString.charAt(index);
+            if (currentChar == '-' || currentChar == '+') {
+                break;
+            }
+            if (currentChar == '.') {
+                if (segment == 2) {
+                    throw new ValidationException(key, coreOf(versionString, start, end), "must have 3 number segments");
+                }
+                int value = checkSegment(key, versionString, start, end, segment, index - segmentStart, segmentValue);
+                if (segment == 0) {
+                    major = value;
+                } else {
+                    minor = value;
+                }
+                segment++;
+                segmentStart = index + 1;
+                segmentValue = 0;
+                continue;
+            }
+            if (currentChar < '0' || currentChar > '9') {
+                // Mark as invalid, but keep scanning for the segment count.
+                segmentValue = Long.MIN_VALUE;
+                continue;
+            }
+            if (segmentValue >= 0) {
+                segmentValue = segmentValue * 10 + (currentChar - '0');
+                if (segmentValue > Integer.MAX_VALUE) {
+                    segmentValue = Long.MIN_VALUE;
+                }
+            }
+        }
+        if (segment != 2) {
+            throw new ValidationException(key, coreOf(versionString, start, end), "must have 3 number segments");
         }
+        patch = checkSegment(key, versionString, start, end, segment, index - segmentStart, segmentValue);
 
+        String[] release = null;
         String build = null;
-        if (versionString.contains("+")) {
-            String[] buildSplit = versionString.split("\\+");
-            build = buildSplit[1];
-            versionString = buildSplit[0];
-        }
-
-        String[] releases = null;
-        if (versionString.contains("-")) {
-            String[] releaseSplit = versionString.split("-");
-            versionString = releaseSplit[0];
-            String releaseString = releaseSplit[1];
-            if (releaseString.contains(".")) {
-                releases = releaseString.split("\\.");
-            } else {
-                releases = new String[]{releaseString};
+        if (index < end && versionString.charAt(index) == '-') {
+            int releaseStart = index + 1;
+            int releaseEnd = releaseStart;
+            int identifierCount = 1;
+            while (releaseEnd < end && versionString.charAt(releaseEnd) != '+') {
+                if (versionString.charAt(releaseEnd) == '.') {
+                    identifierCount++;
+                }
+                releaseEnd++;
             }
+            if (releaseStart == releaseEnd) {
+                throw new ValidationException(key, versionString.substring(start, end), "release must not be empty");
+            }
+            release = new String[identifierCount];
+            int identifierStart = releaseStart;
+            int identifierIndex = 0;
+            for (int releaseIndex = releaseStart; releaseIndex <= releaseEnd; releaseIndex++) {
+                if (releaseIndex == releaseEnd || versionString.charAt(releaseIndex) == '.') {
+                    release[identifierIndex++] = versionString.substring(identifierStart, releaseIndex);
+                    identifierStart = releaseIndex + 1;
+                }
+            }
+            index = releaseEnd;
+        }
+        if (index < end) {
+            // The only char left at this point is '+'
+            if (index + 1 == end) {
+                throw new ValidationException(key, versionString.substring(start, end), "build must not be empty");
+            }
+            build = versionString.substring(index + 1, end);
         }
 
-        String[] split = versionString.split("\\.");
-        if (split.length != 3) {
-            throw new ValidationException(key, versionString, "must have 3 number segments");
+        SemVer version = new SemVer(major, minor, patch, release, build);
+        if (INTERN_CACHE.size() < INTERN_CACHE_SIZE) {
+            INTERN_CACHE.putIfAbsent(versionString, version);
         }
+        return version;
+    }
 
-        int major = parseVersionNumber(key, versionString, "major", split[0]);
-        int minor = parseVersionNumber(key, versionString, "minor", split[1]);
-        int patch = parseVersionNumber(key, versionString, "patch", split[2]);
-        if (major == Integer.MIN_VALUE || minor == Integer.MIN_VALUE || patch == Integer.MIN_VALUE) {
-            return null;
+    private static int checkSegment(String key, String versionString, int start, int end,
+                                    int segment, int length, long segmentValue) throws ValidationException {
+        if (length == 0 || segmentValue < 0) {
+            String type = segment == 0 ? "major" : segment == 1 ? "minor" : "patch";
+            throw new ValidationException(key, coreOf(versionString, start, end), "version segment \"" + type + "\" must be a number");
         }
+        return (int) segmentValue;
+    }
 
-        return new SemVer(major, minor, patch, releases, build);
+    // The error messages only show MAJOR.MINOR.PATCH
+    private static String coreOf(String versionString, int start, int end) {
+        int coreEnd = start;
+        while (coreEnd < end && versionString.charAt(coreEnd) != '-' && versionString.charAt(coreEnd) != '+') {
+            coreEnd++;
+        }
+        return versionString.substring(start, coreEnd);
     }
 
-    private static int parseVersionNumber(String key, String versionString, String type, String segmentString) throws ValidationException {
-        try {
-            int versionNumber = Integer.parseInt(segmentString);
-            if (versionNumber < 0) {
-                throw new ValidationException(key, versionString, "version segment \"" + type + "\" must be positive (>= 0)");
+    private static long pack(int major, int minor, int patch) {
+        if (major > PACKED_MAX || minor > PACKED_MAX || patch > PACKED_MAX) {
+            return NOT_PACKED;
+        }
+        return ((long) major << (PACKED_BITS * 2)) | ((long) minor << PACKED_BITS) | patch;
+    }
+
+    public String[] getRelease() {
+        return release == null ? null : release.clone();
+    }
+
+    public boolean isPreRelease() {
+        return release != null;
+    }
+
+    @Override
+    public int compareTo(@NotNull SemVer other) {
+        int coreCompare;
+        if (packed != NOT_PACKED && other.packed != NOT_PACKED) {
+            coreCompare = Long.compare(packed, other.packed);
+        } else {
+            coreCompare = Integer.compare(major, other.major);
+            if (coreCompare == 0) {
+                coreCompare = Integer.compare(minor, other.minor);
+            }
+            if (coreCompare == 0) {
+                coreCompare = Integer.compare(patch, other.patch);
             }
-            return versionNumber;
-        } catch (NumberFormatException e) {
-            throw new ValidationException(key, versionString, "version segment \"" + type + "\" must be a number");
         }
+        if (coreCompare != 0) {
+            return coreCompare;
+        }
+        return compareRelease(release, other.release);
+    }
+
+    // 1.0.0-alpha < 1.0.0-alpha.1 < 1.0.0-alpha.beta < 1.0.0-beta < 1.0.0-beta.2 < 1.0.0-beta.11 < 1.0.0-rc.1 < 1.0.0
+    private static int compareRelease(String[] release, String[] otherRelease) {
+        if (release == null || otherRelease == null) {
+            // A version without release has a higher precedence.
+            return release == null ? (otherRelease == null ? 0 : 1) : -1;
+        }
+        int length = Math.min(release.length, otherRelease.length);
+        for (int i = 0; i < length; i++) {
+            int identifierCompare = compareIdentifier(release[i], otherRelease[i]);
+            if (identifierCompare != 0) {
+                return identifierCompare;
+            }
+        }
+        return Integer.compare(release.length, otherRelease.length);
+    }
+
+    private static int compareIdentifier(String identifier, String otherIdentifier) {
+        boolean numeric = isNumeric(identifier);
+        boolean otherNumeric = isNumeric(otherIdentifier);
+        if (numeric && otherNumeric) {
+            // Compares numbers of any length without parsing them.
+            String stripped = stripLeadingZeros(identifier);
+            String otherStripped = stripLeadingZeros(otherIdentifier);
+            if (stripped.length() != otherStripped.length()) {
+                return Integer.compare(stripped.length(), otherStripped.length());
+            }
+            return stripped.compareTo(otherStripped);
+        }
+        if (numeric != otherNumeric) {
+            // Numeric identifiers have a lower precedence.
+            return numeric ? -1 : 1;
+        }
+        return identifier.compareTo(otherIdentifier);
+    }
+
+    private static boolean isNumeric(String identifier) {
+        if (identifier.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < identifier.length(); i++) {
+            char currentChar = identifier.charAt(i);
+            if (currentChar < '0' || currentChar > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String stripLeadingZeros(String identifier) {
+        int index = 0;
+        while (index < identifier.length() - 1 && identifier.charAt(index) == '0') {
+            index++;
+        }
+        return index == 0 ? identifier : identifier.substring(index);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof SemVer other)) {
+            return false;
+        }
+        return major == other.major
+            && minor == other.minor
+            && patch == other.patch
+            && Arrays.equals(release, other.release)
+            && Objects.equals(build, other.build);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(packed);
+        result = 31 * result + Integer.hashCode(major);
+        result = 31 * result + Arrays.hashCode(release);
+        result = 31 * result + Objects.hashCode(build);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(major).append('.').append(minor).append('.').append(patch);
+        if (release != null) {
+            builder.append('-').append(String.join(".", release));
+        }
+        if (build != null) {
+            builder.append('+').append(build);
+        }
+        return builder.toString();
     }
 }
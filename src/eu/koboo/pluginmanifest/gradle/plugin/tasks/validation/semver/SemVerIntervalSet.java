@@ -0,0 +1,205 @@
+package eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.semver;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Sorted, disjoint intervals of versions, compiled from a range expression.
+// A missing lower or upper version means unbounded.
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SemVerIntervalSet {
+
+    public static final SemVerIntervalSet ALL = new SemVerIntervalSet(new Interval[]{new Interval(null, true, null, true)});
+    public static final SemVerIntervalSet EMPTY = new SemVerIntervalSet(new Interval[0]);
+
+    Interval[] intervals;
+
+    private SemVerIntervalSet(Interval[] intervals) {
+        this.intervals = intervals;
+    }
+
+    public static SemVerIntervalSet of(@Nullable SemVer lower, boolean lowerInclusive,
+                                       @Nullable SemVer upper, boolean upperInclusive) {
+        Interval interval = new Interval(lower, lowerInclusive, upper, upperInclusive);
+        if (interval.isEmpty()) {
+            return EMPTY;
+        }
+        return new SemVerIntervalSet(new Interval[]{interval});
+    }
+
+    public boolean isEmpty() {
+        return intervals.length == 0;
+    }
+
+    public boolean contains(@NotNull SemVer version) {
+        // Binary search for the last interval, which starts at or before the version.
+        int low = 0;
+        int high = intervals.length - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (intervals[middle].isAboveLower(version)) {
+                candidate = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return candidate != -1 && intervals[candidate].isBelowUpper(version);
+    }
+
+    public @NotNull SemVerIntervalSet intersect(@NotNull SemVerIntervalSet other) {
+        List<Interval> result = new ArrayList<>();
+        int index = 0;
+        int otherIndex = 0;
+        while (index < intervals.length && otherIndex < other.intervals.length) {
+            Interval interval = intervals[index];
+            Interval otherInterval = other.intervals[otherIndex];
+            Interval lower = compareLower(interval, otherInterval) >= 0 ? interval : otherInterval;
+            Interval upper = compareUpper(interval, otherInterval) <= 0 ? interval : otherInterval;
+            Interval intersection = new Interval(lower.lower, lower.lowerInclusive, upper.upper, upper.upperInclusive);
+            if (!intersection.isEmpty()) {
+                result.add(intersection);
+            }
+            // The interval, which ends first, can't overlap any further interval of the other set.
+            if (upper == interval) {
+                index++;
+            } else {
+                otherIndex++;
+            }
+        }
+        return new SemVerIntervalSet(result.toArray(new Interval[0]));
+    }
+
+    public @NotNull SemVerIntervalSet union(@NotNull SemVerIntervalSet other) {
+        if (isEmpty()) {
+            return other;
+        }
+        if (other.isEmpty()) {
+            return this;
+        }
+        Interval[] sorted = Arrays.copyOf(intervals, intervals.length + other.intervals.length);
+        System.arraycopy(other.intervals, 0, sorted, intervals.length, other.intervals.length);
+        Arrays.sort(sorted, SemVerIntervalSet::compareLower);
+
+        List<Interval> merged = new ArrayList<>();
+        Interval current = sorted[0];
+        for (int i = 1; i < sorted.length; i++) {
+            Interval next = sorted[i];
+            if (current.touches(next)) {
+                Interval upper = compareUpper(current, next) >= 0 ? current : next;
+                current = new Interval(current.lower, current.lowerInclusive, upper.upper, upper.upperInclusive);
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return new SemVerIntervalSet(merged.toArray(new Interval[0]));
+    }
+
+    // Unbounded is lower than any version, inclusive starts before exclusive.
+    private static int compareLower(Interval interval, Interval other) {
+        if (interval.lower == null || other.lower == null) {
+            return interval.lower == null ? (other.lower == null ? 0 : -1) : 1;
+        }
+        int compare = interval.lower.compareTo(other.lower);
+        if (compare != 0 || interval.lowerInclusive == other.lowerInclusive) {
+            return compare;
+        }
+        return interval.lowerInclusive ? -1 : 1;
+    }
+
+    // Unbounded is higher than any version, exclusive ends before inclusive.
+    private static int compareUpper(Interval interval, Interval other) {
+        if (interval.upper == null || other.upper == null) {
+            return interval.upper == null ? (other.upper == null ? 0 : 1) : -1;
+        }
+        int compare = interval.upper.compareTo(other.upper);
+        if (compare != 0 || interval.upperInclusive == other.upperInclusive) {
+            return compare;
+        }
+        return interval.upperInclusive ? 1 : -1;
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "<empty>";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (Interval interval : intervals) {
+            if (!builder.isEmpty()) {
+                builder.append(" || ");
+            }
+            builder.append(interval);
+        }
+        return builder.toString();
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class Interval {
+        SemVer lower;
+        boolean lowerInclusive;
+        SemVer upper;
+        boolean upperInclusive;
+
+        boolean isEmpty() {
+            if (lower == null || upper == null) {
+                return false;
+            }
+            int compare = lower.compareTo(upper);
+            return compare > 0 || (compare == 0 && !(lowerInclusive && upperInclusive));
+        }
+
+        boolean isAboveLower(SemVer version) {
+            if (lower == null) {
+                return true;
+            }
+            int compare = version.compareTo(lower);
+            return lowerInclusive ? compare >= 0 : compare > 0;
+        }
+
+        boolean isBelowUpper(SemVer version) {
+            if (upper == null) {
+                return true;
+            }
+            int compare = version.compareTo(upper);
+            return upperInclusive ? compare <= 0 : compare < 0;
+        }
+
+        // Expects the other interval to start at or after this one.
+        boolean touches(Interval next) {
+            if (upper == null || next.lower == null) {
+                return true;
+            }
+            int compare = upper.compareTo(next.lower);
+            return compare > 0 || (compare == 0 && (upperInclusive || next.lowerInclusive));
+        }
+
+        @Override
+        public String toString() {
+            if (lower == null && upper == null) {
+                return "*";
+            }
+            StringBuilder builder = new StringBuilder();
+            if (lower != null) {
+                builder.append(lowerInclusive ? ">=" : ">").append(lower);
+            }
+            if (upper != null) {
+                if (!builder.isEmpty()) {
+                    builder.append(' ');
+                }
+                builder.append(upperInclusive ? "<=" : "<").append(upper);
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -17,6 +17,73 @@ public class SemVerRange {
     boolean minInclusive;
     boolean maxInclusive;
 
+    // Compiles compound expressions into intervals:
+    // - "||" separates alternatives: ^1.0.0 || ^2.0.0
+    // - whitespace separates comparators, which all must match: >=1.2.0 <2.0.0
+    public static SemVerIntervalSet compile(String key, String expression) throws ValidationException {
+        SemVerIntervalSet intervalSet = SemVerIntervalSet.EMPTY;
+        int alternativeStart = 0;
+        while (true) {
+            int alternativeEnd = expression.indexOf("||", alternativeStart);
+            boolean isLast = alternativeEnd == -1;
+            if (isLast) {
+                alternativeEnd = expression.length();
+            }
+            String alternative = expression.substring(alternativeStart, alternativeEnd).trim();
+            if (alternative.isEmpty()) {
+                throw new ValidationException(key, expression, "contains an empty range");
+            }
+            intervalSet = intervalSet.union(compileConjunction(key, alternative));
+            if (isLast) {
+                return intervalSet;
+            }
+            alternativeStart = alternativeEnd + 2;
+        }
+    }
+
+    private static SemVerIntervalSet compileConjunction(String key, String conjunction) throws ValidationException {
+        // Hyphen ranges can't be combined with other comparators.
+        if (conjunction.contains(" - ")) {
+            return parseString(key, conjunction).toIntervalSet();
+        }
+        SemVerIntervalSet intervalSet = SemVerIntervalSet.ALL;
+        int length = conjunction.length();
+        int index = 0;
+        while (index < length) {
+            while (index < length && Character.isWhitespace(conjunction.charAt(index))) {
+                index++;
+            }
+            int comparatorStart = index;
+            // Skip the operator and the whitespace after it, like in ">= 1.2.3"
+            while (index < length && isOperator(conjunction.charAt(index))) {
+                index++;
+            }
+            while (index < length && Character.isWhitespace(conjunction.charAt(index))) {
+                index++;
+            }
+            while (index < length && !Character.isWhitespace(conjunction.charAt(index))) {
+                index++;
+            }
+            if (comparatorStart == index) {
+                break;
+            }
+            String comparator = conjunction.substring(comparatorStart, index);
+            intervalSet = intervalSet.intersect(parseString(key, comparator).toIntervalSet());
+        }
+        return intervalSet;
+    }
+
+    private static boolean isOperator(char currentChar) {
+        return currentChar == '>' || currentChar == '<' || currentChar == '=' || currentChar == '^' || currentChar == '~';
+    }
+
+    public SemVerIntervalSet toIntervalSet() {
+        if (type == RangeType.WILDCARD) {
+            return SemVerIntervalSet.ALL;
+        }
+        return SemVerIntervalSet.of(minVersion, minInclusive, maxVersion, maxInclusive);
+    }
+
     // Parses range strings like: >=1.2.3, ^1.2.3, ~1.2.3, 1.2.3 - 2.0.0, *, etc.
     public static SemVerRange parseString(String key, String rangeString) throws ValidationException {
         // Check for wildcard
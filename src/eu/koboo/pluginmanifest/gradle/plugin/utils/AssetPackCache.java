@@ -0,0 +1,130 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Remembers the result of the last resource directory walk.
+// - Found a file: It's enough to check, if this file still exists.
+// - Found no file: The tree only contains directories, which are
+//   unchanged as long as all their mtimes are unchanged.
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AssetPackCache {
+
+    private static final String HEADER = "# pluginmanifest asset-pack cache v1";
+    private static final String SEPARATOR = "\t";
+    private static final String ROOTS = "R";
+    private static final String WITNESS = "W";
+    private static final String DIRECTORY = "D";
+    // mtime of a resource directory, which doesn't exist
+    public static final long ABSENT = -1;
+
+    File cacheFile;
+
+    public AssetPackCache(@NotNull File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    // Returns null, if the cached answer can't be trusted anymore.
+    public @Nullable Boolean revalidate(@NotNull List<File> resourceDirs) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        String witness = null;
+        Map<String, Long> directoryMtimes = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                return null;
+            }
+            String rootsLine = reader.readLine();
+            if (rootsLine == null || !rootsLine.equals(ROOTS + SEPARATOR + joinRoots(resourceDirs))) {
+                return null;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(SEPARATOR, 3);
+                if (parts[0].equals(WITNESS) && parts.length == 2) {
+                    witness = parts[1];
+                } else if (parts[0].equals(DIRECTORY) && parts.length == 3) {
+                    directoryMtimes.put(parts[2], Long.parseLong(parts[1]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+
+        if (witness != null) {
+            File witnessFile = new File(witness);
+            return witnessFile.isFile() && !witnessFile.isHidden() ? Boolean.TRUE : null;
+        }
+        for (Map.Entry<String, Long> entry : directoryMtimes.entrySet()) {
+            File directory = new File(entry.getKey());
+            long lastModified = directory.isDirectory() ? directory.lastModified() : ABSENT;
+            if (lastModified != entry.getValue()) {
+                return null;
+            }
+        }
+        return Boolean.FALSE;
+    }
+
+    public void storeFound(@NotNull List<File> resourceDirs, @NotNull Path witnessFile) {
+        write(resourceDirs, WITNESS + SEPARATOR + witnessFile.toAbsolutePath(), null);
+    }
+
+    public void storeEmpty(@NotNull List<File> resourceDirs, @NotNull Map<String, Long> directoryMtimes) {
+        write(resourceDirs, null, directoryMtimes);
+    }
+
+    private void write(List<File> resourceDirs, @Nullable String witnessLine, @Nullable Map<String, Long> directoryMtimes) {
+        try {
+            File parentDirectory = cacheFile.getParentFile();
+            if (parentDirectory != null && !parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            Path tempFile = cacheFile.toPath().resolveSibling(cacheFile.getName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                writer.write(ROOTS + SEPARATOR + joinRoots(resourceDirs));
+                writer.newLine();
+                if (witnessLine != null) {
+                    writer.write(witnessLine);
+                    writer.newLine();
+                }
+                if (directoryMtimes != null) {
+                    for (Map.Entry<String, Long> entry : directoryMtimes.entrySet()) {
+                        writer.write(DIRECTORY + SEPARATOR + entry.getValue() + SEPARATOR + entry.getKey());
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            PluginLog.info("Can't write asset-pack cache: " + e.getMessage());
+        }
+    }
+
+    private String joinRoots(List<File> resourceDirs) {
+        StringBuilder builder = new StringBuilder();
+        for (File resourceDir : resourceDirs) {
+            if (!builder.isEmpty()) {
+                builder.append(File.pathSeparatorChar);
+            }
+            builder.append(resourceDir.getAbsolutePath());
+        }
+        return builder.toString();
+    }
+}
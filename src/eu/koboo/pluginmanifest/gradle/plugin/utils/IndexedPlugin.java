@@ -0,0 +1,91 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import eu.koboo.pluginmanifest.gradle.plugin.tasks.dependency.PluginDescriptor;
+import groovy.json.JsonSlurper;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.Map;
+
+// A plugin jar of the mods index, its manifest.json is only parsed, when it's queried.
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IndexedPlugin {
+
+    @Getter
+    final File file;
+    @Getter
+    final long size;
+    @Getter
+    final long lastModified;
+    // Compact json of the manifest.json, null if the jar has none
+    @Getter
+    final String manifestJson;
+    // Reason, why the jar couldn't be read
+    @Getter
+    final String error;
+    Map<?, ?> manifest;
+
+    IndexedPlugin(File file, long size, long lastModified, String manifestJson, String error) {
+        this.file = file;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.manifestJson = manifestJson;
+        this.error = error;
+    }
+
+    public synchronized @Nullable Map<?, ?> getManifest() {
+        if (manifest == null && manifestJson != null) {
+            Object parsed = new JsonSlurper().parseText(manifestJson);
+            if (parsed instanceof Map<?, ?> map) {
+                manifest = map;
+            }
+        }
+        return manifest;
+    }
+
+    public @Nullable String getGroup() {
+        return getString("Group");
+    }
+
+    public @Nullable String getName() {
+        return getString("Name");
+    }
+
+    public @Nullable String getVersion() {
+        return getString("Version");
+    }
+
+    public @Nullable String getMain() {
+        return getString("Main");
+    }
+
+    // "Group:Name", like in the dependencies of a manifest
+    public @Nullable String getId() {
+        String group = getGroup();
+        String name = getName();
+        if (group == null || name == null) {
+            return null;
+        }
+        return group + ":" + name;
+    }
+
+    public @Nullable PluginDescriptor toDescriptor() {
+        Map<?, ?> manifest = getManifest();
+        if (manifest == null) {
+            return null;
+        }
+        return PluginDescriptor.fromManifest(manifest, file.getName());
+    }
+
+    private String getString(String key) {
+        Map<?, ?> manifest = getManifest();
+        if (manifest == null) {
+            return null;
+        }
+        Object value = manifest.get(key);
+        return value instanceof String ? (String) value : null;
+    }
+}
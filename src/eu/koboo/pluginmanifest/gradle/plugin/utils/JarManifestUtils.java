@@ -6,31 +6,53 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
+// The main attributes of a jar's MANIFEST.MF are cached across builds in the Gradle user home,
+// keyed by the canonical path, size and mtime of the jar.
+// The cache directory and the in-memory cache are owned by the ClientInstallationService.
 @UtilityClass
 public class JarManifestUtils {
+    public static final String CACHE_DIRECTORY = "caches" + File.separator + "pluginmanifest" + File.separator + "jar-manifests";
     private static final String VERSION_UNKNOWN = "Unknown";
     private static final String VERSION_KEY = "Implementation-Version";
 
-    public @Nullable Manifest getManifest(@Nullable File file) {
-        if (file == null || !file.isFile() || file.isDirectory() || !file.exists()) {
+    public @Nullable Manifest getManifest(@Nullable File file, @NotNull File cacheDirectory) {
+        if (file == null || !file.isFile()) {
             return null;
         }
-        Manifest manifest;
+        String cacheKey;
         try {
-            JarFile jarFile = new JarFile(file);
-            manifest = jarFile.getManifest();
-            jarFile.close();
+            cacheKey = file.getCanonicalPath() + "|" + file.length() + "|" + file.lastModified();
         } catch (IOException e) {
-            return null;
+            return readManifest(file);
+        }
+        File cacheFile = new File(cacheDirectory, hash(cacheKey) + ".MF");
+        Manifest manifest = loadManifest(cacheFile);
+        if (manifest == null) {
+            manifest = readManifest(file);
+            if (manifest == null) {
+                return null;
+            }
+            saveManifest(cacheFile, manifest);
         }
         return manifest;
     }
 
-    public @NotNull String getVersion(@Nullable File file) {
-        Manifest manifest = getManifest(file);
+    public @NotNull String getVersion(@Nullable File file, @NotNull File cacheDirectory) {
+        Manifest manifest = getManifest(file, cacheDirectory);
         return getVersion(manifest);
     }
 
@@ -48,4 +70,58 @@ public class JarManifestUtils {
     public boolean isUnknown(String version) {
         return version == null || version.trim().isEmpty() || version.equals(VERSION_UNKNOWN);
     }
+
+    // Only inflates the MANIFEST.MF entry and keeps its main attributes.
+    private Manifest readManifest(File file) {
+        try (ZipFile zipFile = new ZipFile(file)) {
+            ZipEntry manifestEntry = zipFile.getEntry(JarFile.MANIFEST_NAME);
+            if (manifestEntry == null) {
+                return null;
+            }
+            try (InputStream inputStream = zipFile.getInputStream(manifestEntry)) {
+                Manifest manifest = new Manifest();
+                manifest.getMainAttributes().putAll(new Manifest(inputStream).getMainAttributes());
+                return manifest;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Manifest loadManifest(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try (InputStream inputStream = Files.newInputStream(cacheFile.toPath())) {
+            return new Manifest(inputStream);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void saveManifest(File cacheFile, Manifest manifest) {
+        try {
+            File parentDirectory = cacheFile.getParentFile();
+            if (!parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            // Unique temp file, so concurrent builds don't write into each other's file.
+            Path tempFile = Files.createTempFile(parentDirectory.toPath(), cacheFile.getName(), ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                manifest.write(outputStream);
+            }
+            Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            PluginLog.info("Can't write jar manifest cache: " + e.getMessage());
+        }
+    }
+
+    private String hash(String cacheKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(cacheKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
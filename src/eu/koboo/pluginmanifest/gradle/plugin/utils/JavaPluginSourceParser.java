@@ -0,0 +1,66 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.nodeTypes.NodeWithName;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+// Every reference to javaparser lives in here, so its classes
+// only get loaded, if a source file passed the lexical pre-filter.
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JavaPluginSourceParser {
+
+    JavaParser parser;
+
+    public JavaPluginSourceParser() {
+        // We only need the declarations, so skip everything else.
+        ParserConfiguration configuration = new ParserConfiguration()
+            .setAttributeComments(false)
+            .setStoreTokens(false)
+            .setLexicalPreservationEnabled(false);
+        this.parser = new JavaParser(configuration);
+    }
+
+    public List<String> parseMainClassCandidates(Path filePath) {
+        CompilationUnit compilationUnit;
+        try {
+            Optional<CompilationUnit> result = parser.parse(filePath)
+                .getResult();
+            if (result.isEmpty()) {
+                return Collections.emptyList();
+            }
+            compilationUnit = result.get();
+        } catch (IOException e) {
+            // Silent ignore.
+            return Collections.emptyList();
+        }
+        List<ClassOrInterfaceDeclaration> classDeclarationList = compilationUnit
+            .findAll(ClassOrInterfaceDeclaration.class)
+            .stream()
+            .filter(c -> !c.isInterface())
+            .filter(c -> c.getExtendedTypes().stream().anyMatch(t -> t.getNameAsString().equals("JavaPlugin")))
+            .filter(c -> !c.isNestedType())
+            .toList();
+        List<String> candidates = new ArrayList<>();
+        for (ClassOrInterfaceDeclaration classDeclaration : classDeclarationList) {
+            String classPackage = compilationUnit.getPackageDeclaration()
+                .map(NodeWithName::getNameAsString)
+                .orElse("");
+            String fullyQualifiedClassName = classPackage.isEmpty()
+                ? classDeclaration.getNameAsString()
+                : classPackage + "." + classDeclaration.getNameAsString();
+            candidates.add(fullyQualifiedClassName);
+        }
+        return candidates;
+    }
+}
@@ -1,145 +1,221 @@
 package eu.koboo.pluginmanifest.gradle.plugin.utils;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.nodeTypes.NodeWithName;
 import eu.koboo.pluginmanifest.gradle.plugin.PluginManifestPlugin;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
 import lombok.experimental.UtilityClass;
 import org.gradle.api.GradleException;
 import org.gradle.api.Project;
-import org.gradle.api.tasks.SourceSet;
-import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
 import org.gradle.jvm.tasks.Jar;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jspecify.annotations.NonNull;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 @UtilityClass
 public class JavaSourceUtils {
 
     private static final String TASK_JAR = "jar";
     private static final String TASK_SHADOW = "shadowJar";
+    public static final String MAIN_CLASS_CACHE = "main-class-candidates.cache";
+    public static final String ASSET_PACK_CACHE = "asset-pack.cache";
 
-    public boolean hasResources(Project project) {
-        if (project == null) {
-            return false;
+    public boolean hasResources(Collection<File> resourceDirs, File cacheFile) {
+        List<File> sortedResourceDirs = resourceDirs.stream()
+            .sorted()
+            .toList();
+        AssetPackCache cache = new AssetPackCache(cacheFile);
+        Boolean cachedResult = cache.revalidate(sortedResourceDirs);
+        if (cachedResult != null) {
+            return cachedResult;
         }
-        SourceSet sourceSet = project.getExtensions()
-            .getByType(SourceSetContainer.class)
-            .getByName("main");
-        for (File srcDir : sourceSet.getResources().getSrcDirs()) {
-            if (srcDir.exists() && containsFile(srcDir)) {
-                return true;
-            }
-        }
-        return false;
-    }
 
-    private boolean containsFile(File dir) {
-        // This is our generated resource directory. Skip that.
-        if (dir.getAbsolutePath().contains(PluginManifestPlugin.RESOURCE_DIRECTORY)) {
-            return false;
-        }
-        File[] files = dir.listFiles();
-        if (files == null) {
-            return false;
-        }
-        for (File subFile : files) {
-            if (subFile.isHidden()) {
+        Map<String, Long> directoryMtimes = new LinkedHashMap<>();
+        for (File srcDir : sortedResourceDirs) {
+            if (!srcDir.isDirectory()) {
+                directoryMtimes.put(srcDir.getAbsolutePath(), AssetPackCache.ABSENT);
                 continue;
             }
-            if (subFile.isFile()) {
-                return true;
-            }
-            if (subFile.isDirectory() && containsFile(subFile)) {
+            Path witnessFile = findAnyResource(srcDir.toPath(), directoryMtimes);
+            if (witnessFile != null) {
+                cache.storeFound(sortedResourceDirs, witnessFile);
                 return true;
             }
         }
+        cache.storeEmpty(sortedResourceDirs, directoryMtimes);
         return false;
     }
 
-    public List<String> getMainClassCandidates(Project project) {
+    // Returns the first non-hidden file, stops walking as soon as one is found.
+    private @Nullable Path findAnyResource(Path rootDir, Map<String, Long> directoryMtimes) {
+        Path[] witnessFile = new Path[1];
+        try {
+            Files.walkFileTree(rootDir, new SimpleFileVisitor<>() {
+                @Override
+                public @NonNull FileVisitResult preVisitDirectory(@NonNull Path dir, @NonNull BasicFileAttributes attrs) throws IOException {
+                    // This is our generated resource directory. Skip that.
+                    if (dir.toAbsolutePath().toString().contains(PluginManifestPlugin.RESOURCE_DIRECTORY)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if (!dir.equals(rootDir) && Files.isHidden(dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    directoryMtimes.put(dir.toAbsolutePath().toString(), attrs.lastModifiedTime().toMillis());
+                    return FileVisitResult.CONTINUE;
+                }
 
-        SourceSet sourceSet = project.getExtensions()
-            .getByType(SourceSetContainer.class)
-            .getByName("main");
+                @Override
+                public @NonNull FileVisitResult visitFile(@NonNull Path file, @NonNull BasicFileAttributes attrs) throws IOException {
+                    if (!attrs.isRegularFile() || Files.isHidden(file)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    witnessFile[0] = file;
+                    return FileVisitResult.TERMINATE;
+                }
 
-        Set<File> javaSrcDirs = sourceSet.getJava().getSrcDirs();
-        if (javaSrcDirs.isEmpty()) {
-            PluginLog.info("No java sources found. Can't automatically detect mainClass!");
-            return Collections.emptyList();
+                @Override
+                public @NonNull FileVisitResult visitFileFailed(@NonNull Path file, @NonNull IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new GradleException("Can't detect resources: ", e);
         }
+        return witnessFile[0];
+    }
 
-        List<String> candidates = new ArrayList<>();
-        JavaParser parser = new JavaParser();
+    public List<String> getMainClassCandidates(Collection<File> javaSrcDirs, File cacheFile, int parallelism) {
+        SourceScanCache cache = SourceScanCache.load(cacheFile);
+        List<SourceFile> sourceFiles = collectSourceFiles(javaSrcDirs);
 
+        // Every worker thread gets its own parser, created on the first file,
+        // which passes the pre-filter.
+        ThreadLocal<JavaPluginSourceParser> parsers = ThreadLocal.withInitial(JavaPluginSourceParser::new);
+        List<String> candidates;
+        try {
+            if (parallelism <= 1 || sourceFiles.size() < 2) {
+                candidates = sourceFiles.stream()
+                    .flatMap(sourceFile -> scanSourceFile(cache, parsers, sourceFile).stream())
+                    .sorted()
+                    .toList();
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    candidates = pool.submit(() -> sourceFiles.parallelStream()
+                        .flatMap(sourceFile -> scanSourceFile(cache, parsers, sourceFile).stream())
+                        .sorted()
+                        .toList()
+                    ).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new GradleException("Can't detect mainClass, scan was interrupted!", e);
+                } catch (ExecutionException e) {
+                    throw new GradleException("Can't detect mainClass: ", e.getCause());
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            parsers.remove();
+        }
+        cache.save();
+        return candidates;
+    }
+
+    private List<SourceFile> collectSourceFiles(Collection<File> javaSrcDirs) {
+        List<SourceFile> sourceFiles = new ArrayList<>();
         for (File srcDir : javaSrcDirs) {
             if (!srcDir.exists()) {
                 continue;
             }
-            List<Path> javaFiles;
             try {
-                javaFiles = Files.walk(srcDir.toPath())
-                    .filter(p -> p.toString().endsWith(".java"))
-                    .toList();
+                Files.walkFileTree(srcDir.toPath(), new SimpleFileVisitor<>() {
+                    @Override
+                    public @NonNull FileVisitResult visitFile(@NonNull Path filePath, @NonNull BasicFileAttributes attrs) {
+                        if (filePath.toString().endsWith(".java")) {
+                            sourceFiles.add(new SourceFile(filePath, attrs));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
             } catch (IOException e) {
                 throw new GradleException("Can't detect mainClass: ", e);
             }
-            if (javaFiles.isEmpty()) {
-                continue;
-            }
-            for (Path filePath : javaFiles) {
-                CompilationUnit compilationUnit;
-                try {
-                    Optional<CompilationUnit> result = parser.parse(filePath)
-                        .getResult();
-                    if (result.isEmpty()) {
-                        continue;
-                    }
-                    compilationUnit = result.get();
-                } catch (IOException e) {
-                    // Silent ignore.
-                    continue;
-                }
-                List<ClassOrInterfaceDeclaration> classDeclarationList = compilationUnit
-                    .findAll(ClassOrInterfaceDeclaration.class)
-                    .stream()
-                    .filter(c -> !c.isInterface())
-                    .filter(c -> c.getExtendedTypes().stream().anyMatch(t -> t.getNameAsString().equals("JavaPlugin")))
-                    .filter(c -> !c.isNestedType())
-                    .toList();
-                for (ClassOrInterfaceDeclaration classDeclaration : classDeclarationList) {
-                    String classPackage = compilationUnit.getPackageDeclaration()
-                        .map(NodeWithName::getNameAsString)
-                        .orElse("");
-                    String fullyQualifiedClassName = classPackage.isEmpty()
-                        ? classDeclaration.getNameAsString()
-                        : classPackage + "." + classDeclaration.getNameAsString();
-                    candidates.add(fullyQualifiedClassName);
-                }
-            }
         }
-        return candidates;
+        return sourceFiles;
     }
 
-    public Jar resolveArchiveTask(@NotNull Project project) {
-        Jar shadowTask = project.getTasks()
-            .withType(Jar.class)
-            .findByName(TASK_SHADOW);
-        if (shadowTask != null) {
-            return shadowTask;
+    private List<String> scanSourceFile(SourceScanCache cache, ThreadLocal<JavaPluginSourceParser> parsers, SourceFile sourceFile) {
+        Path filePath = sourceFile.path;
+        BasicFileAttributes attrs = sourceFile.attributes;
+        List<String> fileCandidates = cache.lookup(filePath, attrs);
+        if (fileCandidates != null) {
+            return fileCandidates;
         }
-        Jar defaultTask = project.getTasks()
-            .withType(Jar.class)
-            .findByName(TASK_JAR);
-        if (defaultTask == null) {
+        fileCandidates = Collections.emptyList();
+        if (SourcePreFilter.mightDeclarePlugin(filePath)) {
+            fileCandidates = parsers.get().parseMainClassCandidates(filePath);
+        }
+        cache.store(filePath, attrs, fileCandidates);
+        return fileCandidates;
+    }
+
+    public @Nullable String selectMainClass(@Nullable List<String> mainClassCandidates) {
+        if (mainClassCandidates == null || mainClassCandidates.isEmpty()) {
+            PluginLog.info("Found no pluginMainClass candidates. Please set your pluginMainClass manually.");
+            return null;
+        }
+        if (mainClassCandidates.size() != 1) {
+            PluginLog.info("Found multiple pluginMainClass candidates. Please set your pluginMainClass manually.");
+            return null;
+        }
+        return mainClassCandidates.getFirst();
+    }
+
+    public List<String> readMainClassCandidates(File candidatesFile) {
+        if (!candidatesFile.isFile()) {
+            return Collections.emptyList();
+        }
+        try {
+            return Files.readAllLines(candidatesFile.toPath(), StandardCharsets.UTF_8)
+                .stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .toList();
+        } catch (IOException e) {
+            throw new GradleException("Can't read mainClass candidates: ", e);
+        }
+    }
+
+    // Checks only the task names, so no archive task gets realized.
+    public TaskProvider<Jar> resolveArchiveTask(@NotNull Project project) {
+        Set<String> taskNames = project.getTasks().getNames();
+        if (taskNames.contains(TASK_SHADOW)) {
+            return project.getTasks().named(TASK_SHADOW, Jar.class);
+        }
+        if (!taskNames.contains(TASK_JAR)) {
             throw new GradleException("No task for archive found!");
         }
-        return defaultTask;
+        return project.getTasks().named(TASK_JAR, Jar.class);
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class SourceFile {
+        Path path;
+        BasicFileAttributes attributes;
     }
-}
+}
\ No newline at end of file
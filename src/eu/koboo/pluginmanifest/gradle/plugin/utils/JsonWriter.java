@@ -0,0 +1,159 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+// Writes maps, collections, strings, numbers and booleans as pretty-printed json in a single pass.
+// The output is equal to JsonOutput.prettyPrint(JsonOutput.toJson(value)),
+// without serializing, lexing and building the string a second time.
+// Keys are written in the iteration order of the map, so LinkedHashMaps give a stable output.
+@UtilityClass
+public class JsonWriter {
+
+    private static final String INDENT = "    ";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    public void writeFile(@NotNull Path file, @Nullable Object value) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            write(writer, value);
+        }
+    }
+
+    public @NotNull String toJson(@Nullable Object value) {
+        StringWriter writer = new StringWriter();
+        try {
+            write(writer, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    public void write(@NotNull Writer writer, @Nullable Object value) throws IOException {
+        writeValue(writer, value, 0);
+    }
+
+    private void writeValue(Writer writer, Object value, int depth) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof Map<?, ?> map) {
+            writeMap(writer, map, depth);
+        } else if (value instanceof Collection<?> collection) {
+            writeCollection(writer, collection, depth);
+        } else if (value instanceof Object[] array) {
+            writeCollection(writer, Arrays.asList(array), depth);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+        } else {
+            writeString(writer, value.toString());
+        }
+    }
+
+    private void writeMap(Writer writer, Map<?, ?> map, int depth) throws IOException {
+        writer.write('{');
+        writer.write('\n');
+        if (map.isEmpty()) {
+            // JsonOutput keeps an indented empty line.
+            writeIndent(writer, depth + 1);
+        }
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                writer.write(',');
+                writer.write('\n');
+            }
+            first = false;
+            writeIndent(writer, depth + 1);
+            writeString(writer, String.valueOf(entry.getKey()));
+            writer.write(": ");
+            writeValue(writer, entry.getValue(), depth + 1);
+        }
+        writer.write('\n');
+        writeIndent(writer, depth);
+        writer.write('}');
+    }
+
+    private void writeCollection(Writer writer, Collection<?> collection, int depth) throws IOException {
+        writer.write('[');
+        writer.write('\n');
+        if (collection.isEmpty()) {
+            writeIndent(writer, depth + 1);
+        }
+        boolean first = true;
+        for (Object element : collection) {
+            if (!first) {
+                writer.write(',');
+                writer.write('\n');
+            }
+            first = false;
+            writeIndent(writer, depth + 1);
+            writeValue(writer, element, depth + 1);
+        }
+        writer.write('\n');
+        writeIndent(writer, depth);
+        writer.write(']');
+    }
+
+    private void writeIndent(Writer writer, int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            writer.write(INDENT);
+        }
+    }
+
+    private void writeString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char character = value.charAt(i);
+            String escaped = escape(character);
+            if (escaped == null) {
+                continue;
+            }
+            writer.write(value, start, i - start);
+            writer.write(escaped);
+            start = i + 1;
+        }
+        writer.write(value, start, length - start);
+        writer.write('"');
+    }
+
+    private String escape(char character) {
+        switch (character) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            default:
+                // Like JsonOutput, everything outside of printable ASCII is escaped.
+                if (character < 0x20 || character > 0x7E) {
+                    return "\\u" + HEX_DIGITS[(character >> 12) & 0xF] + HEX_DIGITS[(character >> 8) & 0xF]
+                        + HEX_DIGITS[(character >> 4) & 0xF] + HEX_DIGITS[character & 0xF];
+                }
+                return null;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import eu.koboo.pluginmanifest.gradle.plugin.PluginManifestPlugin;
+import groovy.json.JsonOutput;
+import groovy.json.JsonSlurper;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.gradle.api.GradleException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Index of the manifest.json of every plugin jar in a mods directory.
+// ZipFile only reads the central directory and inflates the single manifest.json entry.
+// Unchanged jars (same size and mtime) are served from the cache file.
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ModsIndex {
+
+    // Bump this, if the stored format changes, so old results are thrown away.
+    private static final String HEADER = "# pluginmanifest mods index v1";
+    private static final String SEPARATOR = "\t";
+    private static final String MANIFEST = "M";
+    private static final String NO_MANIFEST = "N";
+    private static final String ERROR = "E";
+
+    List<IndexedPlugin> plugins;
+    // Built on the first lookup, so an unchanged index doesn't parse any manifest.
+    @NonFinal
+    Map<String, IndexedPlugin> pluginsById;
+
+    private ModsIndex(List<IndexedPlugin> plugins) {
+        this.plugins = plugins;
+    }
+
+    public static @NotNull ModsIndex build(@NotNull Collection<File> pluginJars, @NotNull File cacheFile, int parallelism) {
+        Map<String, IndexedPlugin> cachedPlugins = load(cacheFile);
+        List<File> sortedJars = new ArrayList<>(pluginJars);
+        sortedJars.sort(Comparator.comparing(File::getName));
+
+        Map<String, IndexedPlugin> indexedPlugins = new ConcurrentHashMap<>();
+        List<File> changedJars = new ArrayList<>();
+        for (File pluginJar : sortedJars) {
+            String key = pluginJar.getAbsolutePath();
+            IndexedPlugin cachedPlugin = cachedPlugins.get(key);
+            if (cachedPlugin != null
+                && cachedPlugin.getSize() == pluginJar.length()
+                && cachedPlugin.getLastModified() == pluginJar.lastModified()) {
+                indexedPlugins.put(key, cachedPlugin);
+            } else {
+                changedJars.add(pluginJar);
+            }
+        }
+
+        if (parallelism <= 1 || changedJars.size() < 2) {
+            for (File pluginJar : changedJars) {
+                indexedPlugins.put(pluginJar.getAbsolutePath(), readPlugin(pluginJar));
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(() -> changedJars.parallelStream()
+                    .forEach(pluginJar -> indexedPlugins.put(pluginJar.getAbsolutePath(), readPlugin(pluginJar)))
+                ).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GradleException("Can't index mods, indexing was interrupted!", e);
+            } catch (ExecutionException e) {
+                throw new GradleException("Can't index mods: ", e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        List<IndexedPlugin> plugins = new ArrayList<>(sortedJars.size());
+        for (File pluginJar : sortedJars) {
+            plugins.add(indexedPlugins.get(pluginJar.getAbsolutePath()));
+        }
+        // Removed jars are dropped, so only write, if something changed.
+        if (!changedJars.isEmpty() || cachedPlugins.size() != plugins.size()) {
+            save(cacheFile, plugins);
+        }
+        return new ModsIndex(Collections.unmodifiableList(plugins));
+    }
+
+    public @NotNull List<IndexedPlugin> getPlugins() {
+        return plugins;
+    }
+
+    // The first jar, sorted by file name, wins, if there are duplicates.
+    public synchronized @Nullable IndexedPlugin findById(@NotNull String pluginId) {
+        if (pluginsById == null) {
+            Map<String, IndexedPlugin> pluginsById = new LinkedHashMap<>();
+            for (IndexedPlugin plugin : plugins) {
+                String id = plugin.getId();
+                if (id != null) {
+                    pluginsById.putIfAbsent(id, plugin);
+                }
+            }
+            this.pluginsById = pluginsById;
+        }
+        return pluginsById.get(pluginId);
+    }
+
+    private static IndexedPlugin readPlugin(File pluginJar) {
+        long size = pluginJar.length();
+        long lastModified = pluginJar.lastModified();
+        try (ZipFile zipFile = new ZipFile(pluginJar)) {
+            ZipEntry manifestEntry = zipFile.getEntry(PluginManifestPlugin.MANIFEST);
+            if (manifestEntry == null) {
+                return new IndexedPlugin(pluginJar, size, lastModified, null, null);
+            }
+            Object manifest;
+            try (Reader reader = new InputStreamReader(zipFile.getInputStream(manifestEntry), StandardCharsets.UTF_8)) {
+                manifest = new JsonSlurper().parse(reader);
+            }
+            if (!(manifest instanceof Map<?, ?>)) {
+                return new IndexedPlugin(pluginJar, size, lastModified, null, "manifest.json is not an object");
+            }
+            // Stored as compact json, so it fits into a single line of the cache.
+            return new IndexedPlugin(pluginJar, size, lastModified, JsonOutput.toJson(manifest), null);
+        } catch (IOException | RuntimeException e) {
+            return new IndexedPlugin(pluginJar, size, lastModified, null, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private static Map<String, IndexedPlugin> load(File cacheFile) {
+        Map<String, IndexedPlugin> cachedPlugins = new HashMap<>();
+        if (!cacheFile.isFile()) {
+            return cachedPlugins;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                return cachedPlugins;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // SIZE \t MTIME \t PATH \t TYPE \t VALUE
+                String[] parts = line.split(SEPARATOR, 5);
+                if (parts.length != 5) {
+                    continue;
+                }
+                long size = Long.parseLong(parts[0]);
+                long lastModified = Long.parseLong(parts[1]);
+                String manifestJson = parts[3].equals(MANIFEST) ? parts[4] : null;
+                String error = parts[3].equals(ERROR) ? parts[4] : null;
+                cachedPlugins.put(parts[2], new IndexedPlugin(new File(parts[2]), size, lastModified, manifestJson, error));
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Broken cache, just start over.
+            cachedPlugins.clear();
+        }
+        return cachedPlugins;
+    }
+
+    private static void save(File cacheFile, List<IndexedPlugin> plugins) {
+        try {
+            File parentDirectory = cacheFile.getParentFile();
+            if (parentDirectory != null && !parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            // Unique temp file, "indexMods" and "resolvePluginDependencies" share the cache and can run in parallel.
+            Path tempFile = Files.createTempFile(cacheFile.getAbsoluteFile().getParentFile().toPath(), cacheFile.getName(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (IndexedPlugin plugin : plugins) {
+                    String type = NO_MANIFEST;
+                    String value = "";
+                    if (plugin.getManifestJson() != null) {
+                        type = MANIFEST;
+                        value = plugin.getManifestJson();
+                    } else if (plugin.getError() != null) {
+                        type = ERROR;
+                        value = plugin.getError().replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+                    }
+                    writer.write(plugin.getSize() + SEPARATOR + plugin.getLastModified() + SEPARATOR
+                        + plugin.getFile().getAbsolutePath() + SEPARATOR + type + SEPARATOR + value);
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            PluginLog.info("Can't write mods index: " + e.getMessage());
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package eu.koboo.pluginmanifest.gradle.plugin.utils;
 
 import eu.koboo.pluginmanifest.gradle.plugin.PluginManifestExtension;
+import eu.koboo.pluginmanifest.gradle.plugin.PluginManifestPlugin;
+import eu.koboo.pluginmanifest.gradle.plugin.extension.MainClassDetection;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.manifest.JsonManifestExtension;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.manifest.ManifestAuthorExtension;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.manifest.ManifestAuthorsExtension;
 import eu.koboo.pluginmanifest.gradle.plugin.extension.manifest.ManifestPluginDependencyExtension;
+import eu.koboo.pluginmanifest.gradle.plugin.service.PluginTimingService;
 import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ManifestValidation;
 import eu.koboo.pluginmanifest.gradle.plugin.tasks.validation.ValidationException;
+import eu.koboo.pluginmanifest.gradle.plugin.valuesource.AssetPackValueSource;
+import eu.koboo.pluginmanifest.gradle.plugin.valuesource.MainClassValueSource;
 import lombok.experimental.UtilityClass;
+import org.gradle.api.Action;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.Project;
 import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
 
+import java.io.File;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -20,43 +29,93 @@ import java.util.Map;
 @UtilityClass
 public class ProviderUtils {
 
-
+    // Called after the project was evaluated, so only the assigned group is captured and not the project.
+    // Group and version can be objects with a lazy toString(), i.e. set by release plugins.
     public Provider<String> createPluginGroupProvider(Project project) {
-        return project.provider(() -> project.getGroup().toString());
+        Object group = project.getGroup();
+        return project.getProviders().provider(group::toString);
     }
 
     public Provider<String> createPluginNameProvider(Project project) {
-        return project.provider(project::getName);
+        String name = project.getName();
+        return project.getProviders().provider(() -> name);
     }
 
     public Provider<String> createPluginVersionProvider(Project project) {
-        return project.provider(() -> project.getVersion().toString());
+        Object version = project.getVersion();
+        return project.getProviders().provider(version::toString);
     }
 
     public Provider<Boolean> createHasResourcesProvider(Project project) {
-        return project.provider(() -> JavaSourceUtils.hasResources(project));
+        return project.getProviders().of(AssetPackValueSource.class, spec -> {
+            AssetPackValueSource.Parameters parameters = spec.getParameters();
+            withMainSourceSet(project, mainSourceSet ->
+                parameters.getResourceDirectories().from(mainSourceSet.getResources().getSourceDirectories())
+            );
+            parameters.getCacheFile().set(project.getLayout()
+                .getBuildDirectory()
+                .file(PluginManifestPlugin.CACHE_DIRECTORY + File.separator + JavaSourceUtils.ASSET_PACK_CACHE));
+        });
     }
 
     public Provider<String> createPluginMainClassCandidateProvider(Project project) {
-        return project.provider(() -> {
-            List<String> mainClassCandidates = JavaSourceUtils.getMainClassCandidates(project);
-            if (mainClassCandidates == null || mainClassCandidates.isEmpty()) {
-                PluginLog.info("Found no pluginMainClass candidates. Please set your pluginMainClass manually.");
-                return null;
-            }
-            if (mainClassCandidates.size() != 1) {
-                PluginLog.info("Found multiple pluginMainClass candidates. Please set your pluginMainClass manually.");
-                return null;
+        PluginManifestExtension extension = project.getExtensions().getByType(PluginManifestExtension.class);
+        Provider<String> sourceMainClass = project.getProviders().of(MainClassValueSource.class, spec -> {
+            MainClassValueSource.Parameters parameters = spec.getParameters();
+            withMainSourceSet(project, mainSourceSet ->
+                parameters.getJavaSourceDirectories().from(mainSourceSet.getJava().getSourceDirectories())
+            );
+            parameters.getCacheFile().set(project.getLayout()
+                .getBuildDirectory()
+                .file(PluginManifestPlugin.CACHE_DIRECTORY + File.separator + JavaSourceUtils.MAIN_CLASS_CACHE));
+            parameters.getParallelism().set(extension.getMainClassScanParallelism());
+        });
+        // Without source detection, "generateManifest" resolves it from the detected candidates.
+        return extension.getMainClassDetection()
+            .flatMap(detection -> detection == MainClassDetection.SOURCE
+                ? sourceMainClass
+                : project.getProviders().provider(() -> null));
+    }
+
+    // The live source directories are added, once the java plugin is applied, so no lambda looks up the project later.
+    private void withMainSourceSet(Project project, Action<SourceSet> action) {
+        project.getPluginManager().withPlugin("java", javaPlugin -> action.execute(
+            project.getExtensions().getByType(SourceSetContainer.class).getByName(SourceSet.MAIN_SOURCE_SET_NAME)
+        ));
+    }
+
+    // Only wraps the provider, if the timings are enabled, so it keeps its laziness otherwise.
+    public <T> Provider<T> createTimedProvider(Project project, String phase, Provider<T> provider) {
+        if (!PluginTimingService.isEnabled(project)) {
+            return provider;
+        }
+        Provider<PluginTimingService> timingService = PluginTimingService.register(project);
+        String projectPath = project.getPath();
+        return project.getProviders().provider(() -> timingService.get().measure(projectPath, phase, provider::getOrNull));
+    }
+
+    // Missing client installations or runtime directories shouldn't fail tasks, which only report them.
+    public <T> Provider<T> createOptionalProvider(Project project, Provider<T> provider) {
+        return project.getProviders().provider(() -> {
+            try {
+                return provider.getOrNull();
+            } catch (RuntimeException e) {
+                // Gradle wraps the exception of the failing provider.
+                for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                    if (cause instanceof InvalidUserDataException) {
+                        return null;
+                    }
+                }
+                throw e;
             }
-            return mainClassCandidates.getFirst();
         });
     }
 
     public Provider<Map<String, Object>> createManifestProvider(Project project) {
-        return project.provider(() -> {
-            PluginManifestExtension pluginManifestExt = project.getExtensions().getByType(PluginManifestExtension.class);
-            JsonManifestExtension extension = pluginManifestExt.getJsonManifestExtension();
-
+        // Only the extensions are captured, so the lambda doesn't reach back into the project.
+        PluginManifestExtension pluginManifestExt = project.getExtensions().getByType(PluginManifestExtension.class);
+        JsonManifestExtension extension = pluginManifestExt.getJsonManifestExtension();
+        return createTimedProvider(project, "manifestBuild", project.getProviders().provider(() -> {
             Map<String, Object> manifestMap = new LinkedHashMap<>();
 
             try {
@@ -81,9 +140,14 @@ public class ProviderUtils {
                 manifestMap.put("ServerVersion", serverVersion);
 
                 // "Main"
-                String mainClassPath = extension.getPluginMainClass().get();
-                ManifestValidation.validateFullyQualifiedClass("pluginMainClass", mainClassPath);
-                manifestMap.put("Main", mainClassPath);
+                // Without source detection, "generateManifest" adds the detected mainClass.
+                MainClassDetection detection = pluginManifestExt.getMainClassDetection().get();
+                String mainClassPath = extension.getPluginMainClass().getOrNull();
+                if (mainClassPath != null || detection == MainClassDetection.SOURCE) {
+                    mainClassPath = extension.getPluginMainClass().get();
+                    ManifestValidation.validateFullyQualifiedClass("pluginMainClass", mainClassPath);
+                    manifestMap.put("Main", mainClassPath);
+                }
 
                 // "Description"
                 String pluginDescription = extension.getPluginDescription().getOrNull();
@@ -190,7 +254,7 @@ public class ProviderUtils {
             }
 
             return manifestMap;
-        });
+        }));
     }
 
     private void gracefulError(ValidationException exception) {
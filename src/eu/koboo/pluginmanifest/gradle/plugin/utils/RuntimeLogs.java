@@ -0,0 +1,168 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import eu.koboo.pluginmanifest.gradle.plugin.extension.LogRetention;
+import lombok.experimental.UtilityClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Only renames the logs directory on the launching thread, the slow part runs in the background.
+@UtilityClass
+public class RuntimeLogs {
+
+    private static final String LOGS_DIRECTORY = "logs";
+    private static final String DELETING_PREFIX = "logs.deleting-";
+    private static final String ARCHIVE_DIRECTORY = "logs-archive";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final DateTimeFormatter RUN_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final int PARALLELISM = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    public void cleanUp(File runtimeDirectory, LogRetention retention, int maxArchivedRuns, long maxArchiveBytes) {
+        File logsDirectory = new File(runtimeDirectory, LOGS_DIRECTORY);
+        String runName = LocalDateTime.now().format(RUN_FORMAT);
+        File movedDirectory = retention == LogRetention.ARCHIVE
+            ? new File(new File(runtimeDirectory, ARCHIVE_DIRECTORY), runName)
+            : new File(runtimeDirectory, DELETING_PREFIX + runName);
+        if (logsDirectory.isDirectory()) {
+            try {
+                movedDirectory.getParentFile().mkdirs();
+                Files.move(logsDirectory.toPath(), movedDirectory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // i.e. a log file is still opened on windows
+                PluginLog.info("Can not move runtime logs directory aside: " + e.getMessage());
+                return;
+            }
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                if (retention == LogRetention.ARCHIVE) {
+                    archive(new File(runtimeDirectory, ARCHIVE_DIRECTORY), maxArchivedRuns, maxArchiveBytes);
+                } else {
+                    deleteLeftovers(runtimeDirectory);
+                }
+            } catch (IOException | RuntimeException e) {
+                PluginLog.info("Can not clean up runtime logs: " + e.getMessage());
+            }
+        }, "pluginmanifest-log-cleanup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Also picks up the directories of earlier runs, which were interrupted while deleting.
+    private void deleteLeftovers(File runtimeDirectory) throws IOException {
+        File[] leftovers = runtimeDirectory.listFiles((directory, name) -> name.startsWith(DELETING_PREFIX));
+        if (leftovers == null) {
+            return;
+        }
+        for (File leftover : leftovers) {
+            deleteParallel(leftover.toPath());
+        }
+    }
+
+    private void deleteParallel(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        List<Path> directories = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.forEach(path -> (Files.isDirectory(path) ? directories : files).add(path));
+        }
+        runParallel(files, path -> Files.deleteIfExists(path));
+        // Deepest directories first
+        directories.sort(Comparator.comparingInt(Path::getNameCount).reversed());
+        for (Path path : directories) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private void archive(File archiveDirectory, int maxArchivedRuns, long maxArchiveBytes) throws IOException {
+        List<Path> uncompressed = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(archiveDirectory.toPath())) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(GZIP_SUFFIX + TEMPORARY_SUFFIX)) {
+                    // Interrupted while compressing
+                    Files.deleteIfExists(path);
+                } else if (!name.endsWith(GZIP_SUFFIX)) {
+                    uncompressed.add(path);
+                }
+            }
+        }
+        runParallel(uncompressed, RuntimeLogs::gzip);
+
+        // Oldest runs first, the names are sortable timestamps.
+        File[] runs = archiveDirectory.listFiles(File::isDirectory);
+        if (runs == null) {
+            return;
+        }
+        List<File> sortedRuns = new ArrayList<>(List.of(runs));
+        sortedRuns.sort(Comparator.comparing(File::getName));
+        List<Long> runSizes = new ArrayList<>();
+        long totalBytes = 0;
+        for (File run : sortedRuns) {
+            long runSize = size(run.toPath());
+            runSizes.add(runSize);
+            totalBytes += runSize;
+        }
+        int index = 0;
+        while (index < sortedRuns.size() - 1
+            && (sortedRuns.size() - index > maxArchivedRuns || totalBytes > maxArchiveBytes)) {
+            deleteParallel(sortedRuns.get(index).toPath());
+            totalBytes -= runSizes.get(index);
+            index++;
+        }
+    }
+
+    // Written next to the log first, so an interrupted run never leaves a truncated archive.
+    private void gzip(Path file) throws IOException {
+        Path archiveFile = file.resolveSibling(file.getFileName() + GZIP_SUFFIX);
+        Path temporaryFile = file.resolveSibling(file.getFileName() + GZIP_SUFFIX + TEMPORARY_SUFFIX);
+        try (InputStream inputStream = Files.newInputStream(file);
+             OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temporaryFile))) {
+            inputStream.transferTo(outputStream);
+        }
+        Files.move(temporaryFile, archiveFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(file);
+    }
+
+    private long size(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private void runParallel(List<Path> paths, PathAction action) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        try {
+            pool.submit(() -> paths.parallelStream().forEach(path -> {
+                try {
+                    action.run(path);
+                } catch (IOException e) {
+                    // Left for the next run
+                }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private interface PathAction {
+        void run(Path path) throws IOException;
+    }
+}
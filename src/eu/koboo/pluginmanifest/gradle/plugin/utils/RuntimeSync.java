@@ -0,0 +1,215 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Predicate;
+
+// Syncs files into the runtime directory by content hash, so unchanged files are never written again.
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RuntimeSync {
+
+    public static final String STATE_FILE = "pluginmanifest" + File.separator + "runtime-sync.properties";
+    private static final String SOURCE_KEY = "source.";
+    private static final String TARGET_KEY = "target.";
+
+    File stateFile;
+    Properties state;
+
+    @NonFinal
+    int linked;
+    @NonFinal
+    int copied;
+    @NonFinal
+    int unchanged;
+    @NonFinal
+    int removed;
+
+    private RuntimeSync(File stateFile, Properties state) {
+        this.stateFile = stateFile;
+        this.state = state;
+    }
+
+    public static RuntimeSync load(File runtimeDirectory) {
+        File stateFile = new File(runtimeDirectory, STATE_FILE);
+        Properties state = new Properties();
+        if (stateFile.isFile()) {
+            try (InputStream inputStream = Files.newInputStream(stateFile.toPath())) {
+                state.load(inputStream);
+            } catch (IOException e) {
+                // Everything is hashed again
+                state.clear();
+            }
+        }
+        return new RuntimeSync(stateFile, state);
+    }
+
+    // The server tries to load every jar, so the plugin has to be copied, once "build/libs/" contains more than one.
+    public static boolean requiresModsCopy(File pluginArchiveFile, boolean copyPluginToRuntime) {
+        if (copyPluginToRuntime) {
+            return true;
+        }
+        File[] archiveFiles = pluginArchiveFile.getParentFile().listFiles();
+        if (archiveFiles == null || archiveFiles.length <= 1) {
+            return false;
+        }
+        long archiveFileAmount = Arrays.stream(archiveFiles)
+            .map(File::getName)
+            .filter(name -> name.endsWith(".jar") || name.endsWith(".zip"))
+            .count();
+        return archiveFileAmount > 1;
+    }
+
+    public void syncDirectory(Map<String, File> sourceFiles, File directory) throws IOException {
+        syncDirectory(sourceFiles, directory, source -> false);
+    }
+
+    // Removes the files, which were synced before, but aren't wanted anymore.
+    // Only direct children of the directory, the files of its subdirectories are synced on their own.
+    public void syncDirectory(Map<String, File> sourceFiles, File directory, Predicate<File> linkSource) throws IOException {
+        for (Map.Entry<String, File> entry : sourceFiles.entrySet()) {
+            File source = entry.getValue();
+            syncFile(source, new File(directory, entry.getKey()), true, linkSource.test(source));
+        }
+        File absoluteDirectory = directory.getAbsoluteFile();
+        List<File> syncedTargets = new ArrayList<>();
+        for (String key : state.stringPropertyNames()) {
+            if (!key.startsWith(TARGET_KEY)) {
+                continue;
+            }
+            File target = new File(key.substring(TARGET_KEY.length()));
+            if (absoluteDirectory.equals(target.getParentFile())) {
+                syncedTargets.add(target);
+            }
+        }
+        for (File target : syncedTargets) {
+            if (sourceFiles.containsKey(target.getName())) {
+                continue;
+            }
+            removeFile(target);
+        }
+    }
+
+    // Only deletes the target, if it's still the file, which we synced. Returns false, if it was left in place.
+    public boolean removeFile(File target) throws IOException {
+        String targetKey = TARGET_KEY + target.getAbsolutePath();
+        if (state.getProperty(targetKey) == null) {
+            return false;
+        }
+        boolean unmodified = isUnmodified(target);
+        if (unmodified) {
+            Files.deleteIfExists(target.toPath());
+            removed++;
+        }
+        state.remove(targetKey);
+        return unmodified;
+    }
+
+    // Returns false, if the target was placed there by the user and foreign files shouldn't be replaced.
+    // Only sources, which are never rewritten in place, may be linked (i.e. the server files of the client).
+    // Gradle rewrites build outputs in place, which would change the jar, that a running server has opened.
+    public boolean syncFile(File source, File target, boolean replaceForeign, boolean link) throws IOException {
+        String sourceHash = hashSource(source);
+        String targetKey = TARGET_KEY + target.getAbsolutePath();
+        String recorded = state.getProperty(targetKey);
+        if (target.isFile()) {
+            if (recorded != null && recorded.equals(sourceHash + "|" + stat(target))) {
+                unchanged++;
+                return true;
+            }
+            // Not synced by us, or replaced since then
+            if (!replaceForeign && !isUnmodified(target)) {
+                return false;
+            }
+            // Rebuilt with the same content
+            if (FileUtils.sha256(target).equals(sourceHash)) {
+                state.setProperty(targetKey, sourceHash + "|" + stat(target));
+                unchanged++;
+                return true;
+            }
+        }
+
+        File parentDirectory = target.getParentFile();
+        if (!parentDirectory.exists()) {
+            parentDirectory.mkdirs();
+        }
+        // Linked or copied next to the target first, so the server never sees a half written file.
+        Path temporaryFile = target.toPath().resolveSibling(target.getName() + ".tmp");
+        Files.deleteIfExists(temporaryFile);
+        if (!link || !createLink(temporaryFile, source.toPath())) {
+            Files.copy(source.toPath(), temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+            copied++;
+        }
+        Files.move(temporaryFile, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        state.setProperty(targetKey, sourceHash + "|" + stat(target));
+        return true;
+    }
+
+    private boolean createLink(Path link, Path source) {
+        try {
+            Files.createLink(link, source);
+            linked++;
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            // Different file stores or no hard link support
+            return false;
+        }
+    }
+
+    public boolean isUnmodified(File target) {
+        String recorded = state.getProperty(TARGET_KEY + target.getAbsolutePath());
+        return recorded != null && target.isFile() && recorded.endsWith("|" + stat(target));
+    }
+
+    public void save() throws IOException {
+        File parentDirectory = stateFile.getParentFile();
+        if (!parentDirectory.exists()) {
+            parentDirectory.mkdirs();
+        }
+        Path temporaryFile = stateFile.toPath().resolveSibling(stateFile.getName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+            state.store(outputStream, "pluginmanifest runtime sync");
+        }
+        Files.move(temporaryFile, stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public String getSummary() {
+        return linked + " linked, " + copied + " copied, " + unchanged + " unchanged, " + removed + " removed";
+    }
+
+    // Unchanged sources aren't hashed again, which matters for shaded jars and the HytaleServer.jar.
+    public String hashSource(File source) throws IOException {
+        String sourceKey = SOURCE_KEY + source.getAbsolutePath();
+        String sourceStat = stat(source);
+        String recorded = state.getProperty(sourceKey);
+        String cachedHash = recorded != null && recorded.startsWith(sourceStat + "|")
+            ? recorded.substring(sourceStat.length() + 1)
+            : null;
+        if (cachedHash != null) {
+            return cachedHash;
+        }
+        String hash = FileUtils.sha256(source);
+        state.setProperty(sourceKey, sourceStat + "|" + hash);
+        return hash;
+    }
+
+    private static String stat(File file) {
+        if (!file.isFile()) {
+            return "0:0";
+        }
+        return file.length() + ":" + file.lastModified();
+    }
+}
@@ -0,0 +1,248 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ServerProcess {
+
+    private static final String STOP_COMMAND = "stop";
+    private static final long DESTROY_TIMEOUT_SECONDS = 5;
+    private static final Object CONSOLE_LOCK = new Object();
+    private static InputStream consoleInput;
+    private static BlockingQueue<String> consoleLines;
+
+    Process process;
+    long startNanos;
+    @Nullable
+    Pattern readyPattern;
+    CountDownLatch readyLatch = new CountDownLatch(1);
+    @NonFinal
+    volatile long readyNanos;
+
+    private ServerProcess(Process process, long startNanos, @Nullable Pattern readyPattern) {
+        this.process = process;
+        this.startNanos = startNanos;
+        this.readyPattern = readyPattern;
+    }
+
+    public static ServerProcess start(List<String> command, File workingDirectory, PrintStream output) throws IOException {
+        return start(command, workingDirectory, output, null);
+    }
+
+    // The output is pumped instead of inherited, because the daemon's own stdout doesn't reach the console.
+    public static ServerProcess start(List<String> command, File workingDirectory, PrintStream output,
+                                      @Nullable Pattern readyPattern) throws IOException {
+        long startNanos = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .directory(workingDirectory)
+            .redirectErrorStream(true)
+            .start();
+        ServerProcess serverProcess = new ServerProcess(process, startNanos, readyPattern);
+        Thread.ofVirtual()
+            .name("pluginmanifest-server-output")
+            .start(() -> serverProcess.pump(process.getInputStream(), output));
+        return serverProcess;
+    }
+
+    private void pump(InputStream inputStream, PrintStream output) {
+        byte[] buffer = new byte[8192];
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        try (inputStream) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+                output.flush();
+                if (readyPattern == null || readyLatch.getCount() == 0) {
+                    continue;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] != '\n') {
+                        line.write(buffer[i]);
+                        continue;
+                    }
+                    if (readyPattern.matcher(line.toString(StandardCharsets.UTF_8)).find()) {
+                        readyNanos = System.nanoTime();
+                        readyLatch.countDown();
+                        break;
+                    }
+                    line.reset();
+                }
+            }
+        } catch (IOException ignored) {
+            // Closed by the stopped process
+        }
+    }
+
+    // Waits for the first line matching the ready pattern and returns the nanos since the launch, or -1.
+    public long awaitReady(long timeoutSeconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (System.nanoTime() < deadline) {
+            if (readyLatch.await(100, TimeUnit.MILLISECONDS)) {
+                return readyNanos - startNanos;
+            }
+            if (!process.isAlive()) {
+                // The pump may still be reading the last lines.
+                return readyLatch.await(1, TimeUnit.SECONDS) ? readyNanos - startNanos : -1;
+            }
+        }
+        return -1;
+    }
+
+    // Nanos since the launch, or -1, if the ready pattern wasn't printed yet.
+    public long getReadyNanos() {
+        return readyLatch.getCount() == 0 ? readyNanos - startNanos : -1;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    public int exitValue() {
+        return process.exitValue();
+    }
+
+    public synchronized boolean sendCommand(String command) {
+        if (!process.isAlive()) {
+            return false;
+        }
+        try {
+            OutputStream inputStream = process.getOutputStream();
+            inputStream.write((command + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            inputStream.flush();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Sends "stop" first, so the server saves its worlds, and only kills it, if it doesn't exit in time.
+    public void stop(long timeoutSeconds) {
+        if (!process.isAlive()) {
+            return;
+        }
+        boolean interrupted = false;
+        try {
+            if (sendCommand(STOP_COMMAND) && process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                return;
+            }
+            PluginLog.info("Server didn't stop within " + timeoutSeconds + "s, terminating it...");
+            process.destroy();
+            if (process.waitFor(DESTROY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        process.destroyForcibly();
+        try {
+            process.waitFor(DESTROY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Forwards the console to whichever servers currently run.
+    // The forwarding thread only waits on the queue of the console reader, so interrupt() ends it.
+    public static Thread startInputForwarding(Supplier<Collection<ServerProcess>> servers) {
+        BlockingQueue<String> lines = consoleLines();
+        // Typed, while no server was running
+        lines.clear();
+        Thread thread = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    String line = lines.take();
+                    for (ServerProcess server : servers.get()) {
+                        server.sendCommand(line);
+                    }
+                }
+            } catch (InterruptedException ignored) {
+                // Stopped with the servers
+            }
+        }, "pluginmanifest-server-input");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // A blocking readLine() ignores interrupt(), so there is only one reader per System.in.
+    // The daemon hands every build its own System.in and closes it with the build, which ends the reader.
+    // Otherwise every session would leave a reader behind, which swallows the input of later sessions.
+    private static BlockingQueue<String> consoleLines() {
+        synchronized (CONSOLE_LOCK) {
+            InputStream input = System.in;
+            if (consoleLines != null && consoleInput == input) {
+                return consoleLines;
+            }
+            BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+            Thread reader = new Thread(() -> {
+                BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(input));
+                try {
+                    String line;
+                    while ((line = bufferedReader.readLine()) != null) {
+                        lines.add(line);
+                    }
+                } catch (IOException ignored) {
+                    // Console closed with the build
+                }
+            }, "pluginmanifest-console-reader");
+            reader.setDaemon(true);
+            reader.start();
+            consoleInput = input;
+            consoleLines = lines;
+            return lines;
+        }
+    }
+
+    // Stops all servers at once, so shutting down doesn't take the sum of their stop times.
+    public static void stopAll(Collection<ServerProcess> servers, long timeoutSeconds) {
+        List<Thread> threads = new ArrayList<>();
+        for (ServerProcess server : servers) {
+            threads.add(Thread.ofVirtual()
+                .name("pluginmanifest-server-stop")
+                .start(() -> server.stop(timeoutSeconds)));
+        }
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
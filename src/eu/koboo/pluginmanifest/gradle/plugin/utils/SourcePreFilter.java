@@ -0,0 +1,71 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Scans the raw bytes of a source file for the "extends" and "JavaPlugin" tokens.
+// Files without both tokens can never declare a plugin mainClass,
+// so we don't need to build an AST for them.
+// The files are read at once, memory-mapping them would lock the sources on Windows,
+// until the daemon collects the mapping.
+@UtilityClass
+public class SourcePreFilter {
+
+    private static final byte[] EXTENDS_TOKEN = "extends".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PLUGIN_TOKEN = "JavaPlugin".getBytes(StandardCharsets.US_ASCII);
+
+    public boolean mightDeclarePlugin(Path filePath) {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(filePath));
+        } catch (IOException e) {
+            // Let the parser decide, what happens with this file.
+            return true;
+        }
+        return containsToken(buffer, PLUGIN_TOKEN) && containsToken(buffer, EXTENDS_TOKEN);
+    }
+
+    private boolean containsToken(ByteBuffer buffer, byte[] token) {
+        int limit = buffer.limit() - token.length;
+        byte first = token[0];
+        for (int i = 0; i <= limit; i++) {
+            if (buffer.get(i) != first) {
+                continue;
+            }
+            if (!matchesAt(buffer, token, i)) {
+                continue;
+            }
+            // Only count whole identifiers, "MyJavaPluginUtils" isn't a match.
+            boolean startsIdentifier = i == 0 || !isIdentifierByte(buffer.get(i - 1));
+            int end = i + token.length;
+            boolean endsIdentifier = end >= buffer.limit() || !isIdentifierByte(buffer.get(end));
+            if (startsIdentifier && endsIdentifier) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesAt(ByteBuffer buffer, byte[] token, int offset) {
+        for (int j = 1; j < token.length; j++) {
+            if (buffer.get(offset + j) != token[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isIdentifierByte(byte value) {
+        // Non-ASCII bytes (negative) can be part of an UTF-8 encoded identifier.
+        return value < 0
+            || value == '_' || value == '$'
+            || (value >= '0' && value <= '9')
+            || (value >= 'a' && value <= 'z')
+            || (value >= 'A' && value <= 'Z');
+    }
+}
@@ -0,0 +1,131 @@
+package eu.koboo.pluginmanifest.gradle.plugin.utils;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Remembers the mainClass candidates of every scanned source file,
+// so unchanged files (same size and mtime) don't need to be parsed again.
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SourceScanCache {
+
+    // Bump this, if the detection logic changes, so old results are thrown away.
+    private static final String HEADER = "# pluginmanifest main-class cache v1";
+    private static final String SEPARATOR = "\t";
+    private static final String CANDIDATE_SEPARATOR = ",";
+
+    File cacheFile;
+    Map<String, Entry> entries = new ConcurrentHashMap<>();
+    Set<String> visitedPaths = ConcurrentHashMap.newKeySet();
+    AtomicBoolean dirty = new AtomicBoolean(false);
+
+    private SourceScanCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public static @NotNull SourceScanCache load(@NotNull File cacheFile) {
+        SourceScanCache cache = new SourceScanCache(cacheFile);
+        if (!cacheFile.isFile()) {
+            return cache;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (!HEADER.equals(header)) {
+                return cache;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // SIZE \t MTIME \t PATH \t CANDIDATE,CANDIDATE
+                String[] parts = line.split(SEPARATOR, -1);
+                if (parts.length != 4) {
+                    continue;
+                }
+                long size = Long.parseLong(parts[0]);
+                long lastModified = Long.parseLong(parts[1]);
+                List<String> candidates = parts[3].isEmpty()
+                    ? Collections.emptyList()
+                    : List.of(parts[3].split(CANDIDATE_SEPARATOR));
+                cache.entries.put(parts[2], new Entry(size, lastModified, candidates));
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Broken cache, just start over.
+            cache.entries.clear();
+        }
+        return cache;
+    }
+
+    public @Nullable List<String> lookup(@NotNull Path sourceFile, @NotNull BasicFileAttributes attributes) {
+        String key = sourceFile.toAbsolutePath().toString();
+        visitedPaths.add(key);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.size != attributes.size() || entry.lastModified != attributes.lastModifiedTime().toMillis()) {
+            return null;
+        }
+        return entry.candidates;
+    }
+
+    public void store(@NotNull Path sourceFile, @NotNull BasicFileAttributes attributes, @NotNull List<String> candidates) {
+        String key = sourceFile.toAbsolutePath().toString();
+        visitedPaths.add(key);
+        entries.put(key, new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), List.copyOf(candidates)));
+        dirty.set(true);
+    }
+
+    public void save() {
+        // Drop every entry of a source file, which doesn't exist anymore.
+        if (entries.keySet().retainAll(visitedPaths)) {
+            dirty.set(true);
+        }
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        List<String> sortedPaths = new ArrayList<>(entries.keySet());
+        Collections.sort(sortedPaths);
+        try {
+            File parentDirectory = cacheFile.getParentFile();
+            if (parentDirectory != null && !parentDirectory.exists()) {
+                parentDirectory.mkdirs();
+            }
+            Path tempFile = cacheFile.toPath().resolveSibling(cacheFile.getName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (String path : sortedPaths) {
+                    Entry entry = entries.get(path);
+                    writer.write(entry.size + SEPARATOR + entry.lastModified + SEPARATOR + path + SEPARATOR
+                        + String.join(CANDIDATE_SEPARATOR, entry.candidates));
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            PluginLog.info("Can't write mainClass cache: " + e.getMessage());
+        }
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class Entry {
+        long size;
+        long lastModified;
+        List<String> candidates;
+    }
+}
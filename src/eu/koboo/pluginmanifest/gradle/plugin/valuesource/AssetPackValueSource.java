@@ -0,0 +1,28 @@
+package eu.koboo.pluginmanifest.gradle.plugin.valuesource;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JavaSourceUtils;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+
+// Resolved lazily, so the resource directories are only walked,
+// if someone actually needs the value of "includesAssetPack".
+public abstract class AssetPackValueSource implements ValueSource<Boolean, AssetPackValueSource.Parameters> {
+
+    public interface Parameters extends ValueSourceParameters {
+
+        ConfigurableFileCollection getResourceDirectories();
+
+        RegularFileProperty getCacheFile();
+    }
+
+    @Override
+    public Boolean obtain() {
+        Parameters parameters = getParameters();
+        return JavaSourceUtils.hasResources(
+            parameters.getResourceDirectories().getFiles(),
+            parameters.getCacheFile().getAsFile().get()
+        );
+    }
+}
@@ -0,0 +1,62 @@
+package eu.koboo.pluginmanifest.gradle.plugin.valuesource;
+
+import eu.koboo.pluginmanifest.gradle.plugin.extension.clientinstall.ClientInstallationExtension;
+import eu.koboo.pluginmanifest.gradle.plugin.service.ClientInstallationState;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+// Discovers the client installation in the search paths.
+// As a ValueSource, it's obtained again, when the configuration cache is reused,
+// so a moved installation invalidates the cache.
+// The previous result is kept in the state file, so revalidating it is a single stat.
+public abstract class ClientDirectoryValueSource implements ValueSource<String, ClientDirectoryValueSource.Parameters> {
+
+    public interface Parameters extends ValueSourceParameters {
+
+        ListProperty<String> getSearchPaths();
+
+        // Optional, without a state file every search path is probed.
+        RegularFileProperty getStateFile();
+    }
+
+    @Override
+    public @Nullable String obtain() {
+        Parameters parameters = getParameters();
+        List<String> searchPaths = parameters.getSearchPaths().get();
+        File stateFile = parameters.getStateFile().getAsFile().getOrNull();
+
+        String joinedSearchPaths = String.join(File.pathSeparator, searchPaths);
+        if (stateFile != null) {
+            Properties state = ClientInstallationState.load(stateFile);
+            String persistedDirectory = state.getProperty(ClientInstallationState.CLIENT_DIRECTORY_KEY);
+            if (persistedDirectory != null
+                && joinedSearchPaths.equals(state.getProperty(ClientInstallationState.SEARCH_PATHS_KEY))
+                && new File(persistedDirectory).isDirectory()) {
+                return persistedDirectory;
+            }
+        }
+
+        String clientDirectory;
+        try {
+            clientDirectory = ClientInstallationExtension.discoverClientDirectory(searchPaths);
+        } catch (InvalidUserDataException e) {
+            return null;
+        }
+        if (stateFile != null) {
+            ClientInstallationState.update(stateFile, Map.of(
+                ClientInstallationState.SEARCH_PATHS_KEY, joinedSearchPaths,
+                ClientInstallationState.CLIENT_DIRECTORY_KEY, clientDirectory
+            ));
+        }
+        return clientDirectory;
+    }
+}
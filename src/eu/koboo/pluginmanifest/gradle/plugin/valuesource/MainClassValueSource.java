@@ -0,0 +1,45 @@
+package eu.koboo.pluginmanifest.gradle.plugin.valuesource;
+
+import eu.koboo.pluginmanifest.gradle.plugin.utils.JavaSourceUtils;
+import eu.koboo.pluginmanifest.gradle.plugin.utils.PluginLog;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+
+// Detects the pluginMainClass from the java sources.
+// As a ValueSource, it's obtained again, when the configuration cache is reused,
+// so a renamed main class invalidates the cache, while unchanged sources are served from the scan cache.
+public abstract class MainClassValueSource implements ValueSource<String, MainClassValueSource.Parameters> {
+
+    public interface Parameters extends ValueSourceParameters {
+
+        ConfigurableFileCollection getJavaSourceDirectories();
+
+        RegularFileProperty getCacheFile();
+
+        Property<Integer> getParallelism();
+    }
+
+    @Override
+    public @Nullable String obtain() {
+        Parameters parameters = getParameters();
+        Set<File> javaSourceDirectories = parameters.getJavaSourceDirectories().getFiles();
+        if (javaSourceDirectories.isEmpty()) {
+            PluginLog.info("No java sources found. Can't automatically detect mainClass!");
+            return null;
+        }
+        List<String> mainClassCandidates = JavaSourceUtils.getMainClassCandidates(
+            javaSourceDirectories,
+            parameters.getCacheFile().getAsFile().get(),
+            parameters.getParallelism().getOrElse(1)
+        );
+        return JavaSourceUtils.selectMainClass(mainClassCandidates);
+    }
+}